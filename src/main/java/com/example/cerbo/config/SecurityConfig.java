@@ -36,9 +36,6 @@ public class SecurityConfig {
     @Value("${jwt.refresh.expiration}")
     private long refreshTokenExpiration;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
-
     @Lazy
     private final JwtTokenFilter jwtTokenFilter;
 
@@ -57,7 +54,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Disposition"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Disposition", "X-Total-Count", "X-Has-Next", "X-Next-Cursor"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -168,6 +165,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/adminsys/**").hasRole("ADMINSYS")
                         .requestMatchers("/api/adminsys/audit-logs").hasRole("ADMINSYS")
                         .requestMatchers("/api/adminsys/users").hasRole("ADMINSYS")
+                        .requestMatchers("/actuator/**").hasRole("ADMINSYS")
 
                         // meetings
                         .requestMatchers("/api/meeting/{meetingId}/agenda/**").hasRole("ADMIN")
@@ -192,6 +190,7 @@ public class SecurityConfig {
                         // Endpoints existants modifiés pour ADMINSYS
                         .requestMatchers("/api/admin/users", "/api/admin/users/**").hasAnyRole("ADMIN", "ADMINSYS", "INVESTIGATEUR", "EVALUATEUR")
                         .requestMatchers("/api/admin/audit-logs").hasAnyRole("ADMIN", "ADMINSYS")
+                        .requestMatchers("/api/audit/**").hasAnyRole("ADMIN", "ADMINSYS")
                         // Tout le reste
                         .anyRequest().permitAll()
                 )
@@ -1,5 +1,6 @@
 package com.example.cerbo.config;
 
+import com.example.cerbo.service.storageService.StorageResourceResolver;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
@@ -8,14 +9,22 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final StorageResourceResolver storageResourceResolver;
+
+    public WebConfig(StorageResourceResolver storageResourceResolver) {
+        this.storageResourceResolver = storageResourceResolver;
+    }
+
     /**
-     * Configuration pour servir les fichiers uploadés
+     * Configuration pour servir les fichiers uploadés, résolus selon le layout de stockage
+     * (sans cache de résolution : la migration du layout déplace les fichiers)
      */
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:./uploads/")
-                .setCachePeriod(3600);
+                .setCachePeriod(3600)
+                .resourceChain(false)
+                .addResolver(storageResourceResolver);
     }
 
     /**
@@ -1,13 +1,43 @@
 package com.example.cerbo.config;
 
+import com.example.cerbo.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.*;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    // simple : broker en mémoire (une instance, ou plusieurs avec websocket.bus=db) ; relay : broker STOMP externe
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay-login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay-passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.heartbeat-ms:10000}")
+    private long heartbeatMillis;
+
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws") // endpoint WebSocket
@@ -17,7 +47,43 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic"); // destinations de réponse
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // Le broker externe diffuse entre instances, y compris les destinations /user/...
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(heartbeatMillis)
+                    .setSystemHeartbeatReceiveInterval(heartbeatMillis)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            // Heartbeats : détection des connexions mortes derrière un load balancer / proxy
+            registry.enableSimpleBroker("/topic", "/queue") // destinations de réponse
+                    .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                    .setTaskScheduler(wsHeartbeatScheduler());
+        }
         registry.setApplicationDestinationPrefixes("/app"); // destinations de requête
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    /**
+     * Ordonnanceur des heartbeats du broker simple, arrêté avec le contexte. Hors candidats à l'injection :
+     * les tâches @Scheduled ne doivent pas le choisir comme TaskScheduler.
+     */
+    @Bean(autowireCandidate = false)
+    public ThreadPoolTaskScheduler wsHeartbeatScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        return scheduler;
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
     }
 }
@@ -1,9 +1,11 @@
 package com.example.cerbo.controller;
 
+import com.example.cerbo.dto.CursorPage;
 import com.example.cerbo.entity.AuditLog;
-import com.example.cerbo.repository.AuditLogRepository;
+import com.example.cerbo.service.auditService.AuditLogSearchService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,16 +14,17 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/adminsys")
 @PreAuthorize("hasRole('ADMINSYS')")
 public class AdminSysController {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogSearchService auditLogSearchService;
 
-    public AdminSysController(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    public AdminSysController(AuditLogSearchService auditLogSearchService) {
+        this.auditLogSearchService = auditLogSearchService;
     }
 
     @GetMapping("/audit-logs")
@@ -32,6 +35,34 @@ public class AdminSysController {
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
 
-        return auditLogRepository.searchAuditLogs(search, actionType, date, pageable);
+        // Jour demandé en intervalle [date, date + 1) : pas de CAST sur la colonne
+        return auditLogSearchService.search(search, actionType,
+                date != null ? date.atStartOfDay() : null,
+                date != null ? date.plusDays(1).atStartOfDay() : null,
+                pageable);
+    }
+
+    // Version keyset (curseur opaque sur timestamp, id) : ?cursor= pour la première page
+    @GetMapping(value = "/audit-logs", params = "cursor")
+    public ResponseEntity<?> getAuditLogsAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String actionType,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        int pageSize = CursorPage.clampSize(size);
+        try {
+            CursorPage.Key after = CursorPage.decode(cursor);
+            List<AuditLog> rows = auditLogSearchService.searchAfter(search, actionType,
+                    date != null ? date.atStartOfDay() : null,
+                    date != null ? date.plusDays(1).atStartOfDay() : null,
+                    after != null ? after.getDate() : null,
+                    after != null ? after.getId() : null,
+                    pageSize + 1);
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, log -> CursorPage.encode(log.getTimestamp(), log.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
\ No newline at end of file
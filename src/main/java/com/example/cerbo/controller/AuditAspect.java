@@ -5,31 +5,28 @@ import com.example.cerbo.entity.AuditLog;
 import com.example.cerbo.controller.BaseEntity;
 import com.example.cerbo.entity.Project;
 import com.example.cerbo.entity.User;
-import com.example.cerbo.repository.AuditLogRepository;
+import com.example.cerbo.security.JwtUserPrincipal;
+import com.example.cerbo.service.auditService.AuditArgumentSerializer;
+import com.example.cerbo.service.auditService.AuditLogWriter;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Aspect;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.event.EventListener;
+import org.aspectj.lang.reflect.CodeSignature;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.stream.Collectors;
 
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class AuditAspect {
-    private final ApplicationEventPublisher eventPublisher;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditArgumentSerializer auditArgumentSerializer;
     private final HttpServletRequest request;
 
     @AfterReturning(pointcut = "@annotation(loggable)", returning = "result")
@@ -39,7 +36,8 @@ public class AuditAspect {
             Long userId = getCurrentUserId();
             Long entityId = extractEntityId(result);
 
-            AuditLogEvent event = new AuditLogEvent(
+            // Écriture différée par lots (AuditLogWriter) : aucune transaction ouverte ici
+            auditLogWriter.enqueue(newAuditLog(
                     loggable.actionType(),
                     loggable.entityType(),
                     entityId,
@@ -48,9 +46,7 @@ public class AuditAspect {
                     getClientIp(),
                     joinPoint.getSignature().getName(),
                     getMethodArgumentsDetails(joinPoint)
-            );
-
-            eventPublisher.publishEvent(event);
+            ));
         } catch (Exception e) {
             System.err.println("Failed to process audit log: " + e.getMessage());
         }
@@ -58,7 +54,7 @@ public class AuditAspect {
 
     @AfterThrowing(pointcut = "@annotation(loggable)", throwing = "ex")
     public void logException(JoinPoint joinPoint, Loggable loggable, Exception ex) {
-        AuditLogEvent event = new AuditLogEvent(
+        auditLogWriter.enqueue(newAuditLog(
                 loggable.actionType() + "_FAILED",
                 loggable.entityType(),
                 null,
@@ -66,12 +62,17 @@ public class AuditAspect {
                 getCurrentUserId(),
                 getClientIp(),
                 joinPoint.getSignature().getName(),
-                "Error: " + ex.getMessage()
-        );
-        eventPublisher.publishEvent(event);
+                auditArgumentSerializer.truncate("Error: " + ex.getMessage())
+        ));
     }
 
     // Méthodes utilitaires
+    private static AuditLog newAuditLog(String actionType, String entityType, Long entityId, String username,
+                                        Long userId, String ipAddress, String methodName, String details) {
+        return new AuditLog(null, LocalDateTime.now(), actionType, entityType, entityId, username, userId,
+                ipAddress, methodName, details);
+    }
+
     private String getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication != null ? authentication.getName() : "system";
@@ -82,6 +83,9 @@ public class AuditAspect {
         if (authentication != null && authentication.getPrincipal() instanceof User) {
             return ((User) authentication.getPrincipal()).getId();
         }
+        if (authentication != null && authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal.getUserId();
+        }
         return null;
     }
 
@@ -98,51 +102,10 @@ public class AuditAspect {
         return null;
     }
 
+    // Résumé borné des arguments, sans toString() sur les entités ni chargement paresseux
     private String getMethodArgumentsDetails(JoinPoint joinPoint) {
-        return Arrays.stream(joinPoint.getArgs())
-                .map(arg -> {
-                    if (arg instanceof Collection) {
-                        return "collection(size=" + ((Collection<?>) arg).size() + ")";
-                    }
-                    return arg != null ? arg.toString() : "null";
-                })
-                .collect(Collectors.joining(", "));
-    }
-
-    // Classe d'événement interne
-    @RequiredArgsConstructor
-    private static class AuditLogEvent {
-        private final String actionType;
-        private final String entityType;
-        private final Long entityId;
-        private final String username;
-        private final Long userId;
-        private final String ipAddress;
-        private final String methodName;
-        private final String details;
-    }
-
-    // Écouteur d'événements
-    @Component
-    @RequiredArgsConstructor
-    private static class AuditLogEventListener {
-        private final AuditLogRepository auditLogRepository;
-
-        @EventListener
-        @Transactional(propagation = Propagation.REQUIRES_NEW)
-        public void handleAuditLogEvent(AuditLogEvent event) {
-            AuditLog log = new AuditLog();
-            log.setTimestamp(LocalDateTime.now());
-            log.setActionType(event.actionType);
-            log.setEntityType(event.entityType);
-            log.setEntityId(event.entityId);
-            log.setUsername(event.username);
-            log.setUserId(event.userId);
-            log.setIpAddress(event.ipAddress);
-            log.setMethodName(event.methodName);
-
-
-            auditLogRepository.save(log);
-        }
+        String[] names = joinPoint.getSignature() instanceof CodeSignature signature
+                ? signature.getParameterNames() : null;
+        return auditArgumentSerializer.serialize(names, joinPoint.getArgs());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.example.cerbo.controller;
+
+import com.example.cerbo.annotation.Loggable;
+import com.example.cerbo.service.auditService.AuditLogExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditExportController {
+
+    private final AuditLogExportService auditLogExportService;
+    private final long exportTimeoutMillis;
+
+    public AuditExportController(AuditLogExportService auditLogExportService,
+                                 @Value("${audit.export.timeout-ms:3600000}") long exportTimeoutMillis) {
+        this.auditLogExportService = auditLogExportService;
+        this.exportTimeoutMillis = exportTimeoutMillis;
+    }
+
+    // Export complet en flux gzip : ?from=2025-01-01&to=2025-07-01&format=csv|ndjson (to exclu).
+    // Délai async propre à cet export : les autres requêtes asynchrones gardent le délai par défaut
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ADMINSYS')")
+    @Loggable(actionType = "EXPORT", entityType = "AUDIT_LOG")
+    public WebAsyncTask<Void> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+        AuditLogExportService.Format exportFormat;
+        try {
+            exportFormat = AuditLogExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format inconnu : " + format + " (csv ou ndjson)");
+        }
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La date de début doit précéder la date de fin");
+        }
+
+        String fileName = "audit_" + from + "_" + to + "." + exportFormat.extension() + ".gz";
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        response.setHeader("X-Export-Content-Type", exportFormat.mediaType());
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            auditLogExportService.export(from.atStartOfDay(), to.atStartOfDay(), exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
+}
@@ -1,15 +1,19 @@
 // AuditLogController.java
 package com.example.cerbo.controller;
 
+import com.example.cerbo.dto.CursorPage;
 import com.example.cerbo.entity.AuditLog;
 import com.example.cerbo.repository.AuditLogRepository;
+import com.example.cerbo.service.auditService.AuditLogSearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -20,6 +24,10 @@ import java.util.List;
 public class AuditLogController {
 
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogSearchService auditLogSearchService;
+
+    @Value("${audit.list.max-size:1000}")
+    private int listLimit;
 
     // Version paginée
     @GetMapping
@@ -28,10 +36,31 @@ public class AuditLogController {
         return auditLogRepository.findAll(pageable);
     }
 
-    // Version non paginée triée
+    // Version keyset (curseur opaque sur timestamp, id) : ?cursor= pour la première page
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getLogsAfter(@RequestParam String cursor,
+                                          @RequestParam(defaultValue = "20") int size) {
+        int pageSize = CursorPage.clampSize(size);
+        try {
+            CursorPage.Key after = CursorPage.decode(cursor);
+            List<AuditLog> rows = auditLogSearchService.searchAfter(null, null, null, null,
+                    after != null ? after.getDate() : null,
+                    after != null ? after.getId() : null,
+                    pageSize + 1);
+            return ResponseEntity.ok(CursorPage.of(rows, pageSize, log -> CursorPage.encode(log.getTimestamp(), log.getId())));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Version non paginée triée, limitée aux entrées les plus récentes : total, suite et curseur keyset en en-têtes
+    // (X-Total-Count, X-Has-Next, X-Next-Cursor) ; l'historique complet passe par /api/audit/export
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<AuditLog> getAllLogs() {
-        return auditLogRepository.findAll(Sort.by(Sort.Direction.DESC, "timestamp"));
+    public ResponseEntity<List<AuditLog>> getAllLogs() {
+        List<AuditLog> rows = auditLogSearchService.searchAfter(null, null, null, null, null, null, listLimit + 1);
+        return CursorPage.of(rows, listLimit, log -> CursorPage.encode(log.getTimestamp(), log.getId()))
+                .toListResponse(auditLogRepository.count());
     }
 }
\ No newline at end of file
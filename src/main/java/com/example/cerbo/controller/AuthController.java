@@ -68,7 +68,7 @@ public class AuthController {
                         .body(Map.of("error", "Votre compte n'est pas encore validé."));
             }
 
-            String token = jwtTokenUtil.generateToken(authentication);
+            String token = jwtTokenUtil.generateToken(authentication, user.getId());
             String refreshToken = jwtTokenUtil.generateRefreshToken(authentication);
 
             // récupérer le premier rôle (ou envoyer la liste si tu veux)
@@ -17,7 +17,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.File;
@@ -44,8 +43,6 @@ public class DocumentController {
     @Autowired
     private DocumentReviewRepository documentReviewRepository;
 
-    @Value("${upload.directory}")
-    private String uploadDir;
 
 
     @PostMapping("/upload")
@@ -97,6 +94,9 @@ public class DocumentController {
         String filename = fileStorageService.updateFile(file,document);
         document.setModificationDate(LocalDateTime.now());
         document.setName(filename);
+        document.setPath(fileStorageService.isContentAddressed()
+                ? filename
+                : fileStorageService.loadFile(filename).toString());
 
         return  ResponseEntity.ok(documentRepository.save(document));
     }
@@ -1,8 +1,9 @@
 package com.example.cerbo.controller;
 
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,19 +14,21 @@ import org.springframework.web.bind.annotation.RestController;
 import java.net.MalformedURLException;
 import java.nio.file.FileSystemNotFoundException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 
 @RestController
 @RequestMapping("/uploads")
 public class FileController {
 
-    @Value("${upload.directory}")
-    private String uploadDir;
+    private final StorageResolver storageResolver;
+
+    public FileController(StorageResolver storageResolver) {
+        this.storageResolver = storageResolver;
+    }
 
     @GetMapping("/{filename}")
     public ResponseEntity<Resource> getFile(@PathVariable String filename) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
+            Path filePath = storageResolver.resolve(StorageArea.UPLOADS, filename);
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists() || resource.isReadable()) {
@@ -1,5 +1,6 @@
 package com.example.cerbo.controller;
 
+import com.example.cerbo.dto.CursorPage;
 import com.example.cerbo.dto.ProjectDTO;
 import com.example.cerbo.dto.meeting.*;
 import com.example.cerbo.entity.*;
@@ -8,6 +9,10 @@ import com.example.cerbo.repository.UserRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -41,6 +46,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class MeetingController {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+
     private final MeetingService meetingService;
     private final UserRepository userRepository;
 
@@ -736,7 +743,10 @@ public class MeetingController {
      * @param fromDate Date de début (optionnel)
      * @param toDate Date de fin (optionnel)
      * @param searchTerm Terme de recherche (optionnel)
-     * @return Liste des réunions correspondant aux critères
+     * @param page Numéro de page (à partir de 0)
+     * @param size Taille de page, ramenée entre 1 et 200
+     * @return Liste des réunions de la page ; le total est dans l'en-tête X-Total-Count, la présence d'une page
+     *         suivante dans X-Has-Next
      */
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN')")
@@ -744,19 +754,26 @@ public class MeetingController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) LocalDate fromDate,
             @RequestParam(required = false) LocalDate toDate,
-            @RequestParam(required = false) String searchTerm) {
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
             log.info("Recherche de réunions - Statut: {}, Du: {}, Au: {}, Terme: {}",
                     status, fromDate, toDate, searchTerm);
 
-            List<Meeting> meetings = meetingService.searchMeetings(status, fromDate, toDate, searchTerm);
-            List<MeetingDTO> meetingDTOs = meetings.stream()
+            Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)),
+                    Sort.by("date", "time", "id"));
+            Page<Meeting> meetings = meetingService.searchMeetings(status, fromDate, toDate, searchTerm, pageable);
+            List<MeetingDTO> meetingDTOs = meetings.getContent().stream()
                     .map(MeetingDTO::createSimple)
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
 
-            log.info("Recherche terminée: {} réunions trouvées", meetingDTOs.size());
-            return ResponseEntity.ok(meetingDTOs);
+            log.info("Recherche terminée: {} réunions trouvées sur {}", meetingDTOs.size(), meetings.getTotalElements());
+            return ResponseEntity.ok()
+                    .header(CursorPage.TOTAL_COUNT_HEADER, String.valueOf(meetings.getTotalElements()))
+                    .header(CursorPage.HAS_NEXT_HEADER, String.valueOf(meetings.hasNext()))
+                    .body(meetingDTOs);
         } catch (Exception e) {
             log.error("Erreur lors de la recherche de réunions: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -1,8 +1,9 @@
 package com.example.cerbo.controller;
 
-import com.example.cerbo.dto.NotificationDTO;
+import com.example.cerbo.dto.CursorPage;
 import com.example.cerbo.entity.Notification;
 import com.example.cerbo.entity.User;
+import com.example.cerbo.security.JwtAuthenticationDetails;
 import com.example.cerbo.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,7 +13,6 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -27,19 +27,33 @@ public class NotificationController {
 
 
     @GetMapping
-    public ResponseEntity<List<NotificationDTO>> getNotifications(Authentication authentication) {
-        String email = authentication.getName();
-        List<Notification> notifications = notificationService.getNotificationsForUser(email);
-
-        List<NotificationDTO> dtos = notificationService.getNotificationDTOsForUser(authentication.getName());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<?> getNotifications(Authentication authentication,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size) {
+        // Mode curseur (?cursor= pour la première page) : { items, next }
+        if (cursor != null) {
+            try {
+                return ResponseEntity.ok(notificationService.getNotificationPageForUser(authentication.getName(), cursor,
+                        CursorPage.clampSize(size)));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
+        // Liste simple limitée : total, suite et curseur de la page suivante en en-têtes
+        return notificationService.getNotificationDTOsForUser(authentication.getName())
+                .toListResponse(notificationService.countNotificationsForUser(authentication.getName()));
 
     }
 
 
     @GetMapping("/count-unread")
     public ResponseEntity<Integer> countUnread(Authentication authentication) {
-        int count = notificationService.countUnreadNotifications(authentication.getName());
+        // Id lu dans le token déjà vérifié par JwtTokenFilter : aucune requête par interrogation
+        Long userId = JwtAuthenticationDetails.userIdOf(authentication);
+        int count = userId != null
+                ? notificationService.countUnreadNotifications(userId)
+                : notificationService.countUnreadNotifications(authentication.getName());
 
         return ResponseEntity.ok(count) ;
     }
@@ -1,8 +1,10 @@
 package com.example.cerbo.controller;
 
 import com.example.cerbo.dto.AIPreferenceDto;
+import com.example.cerbo.dto.NotificationPreferenceDto;
 import com.example.cerbo.dto.UpdateProfileRequest;
 import com.example.cerbo.entity.User;
+import com.example.cerbo.entity.enums.EmailDigestMode;
 import com.example.cerbo.repository.UserRepository;
 import com.example.cerbo.service.ProfileService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -57,6 +59,7 @@ public class ProfileController {
             response.put("affiliation", user.getAffiliation() != null ? user.getAffiliation() : "");
             response.put("photoUrl", user.getPhotoUrl() != null ? user.getPhotoUrl() : "");
             response.put("useAI", user.getUseAI());
+            response.put("emailDigestMode", user.getEmailDigestMode() != null ? user.getEmailDigestMode() : EmailDigestMode.IMMEDIATE);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -165,4 +168,25 @@ public class ProfileController {
                     .body(Collections.singletonMap("error", "Erreur lors de la mise à jour"));
         }
     }
+
+    @PutMapping("/notification-preference")
+    public ResponseEntity<?> updateNotificationPreference(@RequestBody NotificationPreferenceDto preferenceDto,
+                                                          @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            User currentUser = userRepository.findByEmail(userDetails.getUsername());
+            if (currentUser == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Collections.singletonMap("error", "Utilisateur non trouvé"));
+            }
+
+            currentUser.setEmailDigestMode(preferenceDto.getEmailDigestMode() != null
+                    ? preferenceDto.getEmailDigestMode() : EmailDigestMode.IMMEDIATE);
+            userRepository.save(currentUser);
+
+            return ResponseEntity.ok(Collections.singletonMap("emailDigestMode", currentUser.getEmailDigestMode()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Collections.singletonMap("error", "Erreur lors de la mise à jour"));
+        }
+    }
 }
\ No newline at end of file
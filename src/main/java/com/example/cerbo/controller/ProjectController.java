@@ -2,26 +2,37 @@ package com.example.cerbo.controller;
 
 
 import com.example.cerbo.dto.CoInvestigator;
+import com.example.cerbo.dto.CursorPage;
 import com.example.cerbo.entity.*;
 import com.example.cerbo.entity.enums.ProjectStatus;
 import com.example.cerbo.entity.enums.ReportStatus;
 import com.example.cerbo.exception.ResourceNotFoundException;
 import com.example.cerbo.repository.*;
+import com.example.cerbo.security.ProjectMembershipCache;
 import com.example.cerbo.service.AvisFavorableService;
 import com.example.cerbo.service.NotificationService;
 import com.example.cerbo.service.documentReview.DocumentReviewService;
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import com.example.cerbo.dto.ProjectListItemDTO;
 import com.example.cerbo.dto.ProjectSubmissionDTO;
+import com.example.cerbo.service.ProjectDossierService;
+import com.example.cerbo.service.searchService.ProjectSearchIndex;
 import com.example.cerbo.service.ProjectService;
+import com.example.cerbo.service.FileIngestService;
 import com.example.cerbo.service.FileStorageService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.common.util.internal.logging.InternalLogger;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.UrlResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -33,6 +44,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import com.example.cerbo.entity.User;
@@ -58,10 +71,18 @@ public class ProjectController {
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final NotificationService notificationService;
+    private final ProjectMembershipCache projectMembershipCache;
     private final DocumentReviewRepository documentReviewRepository;
     private final ReportRepository reportRepository;
     private final DocumentReviewService documentReviewService;
     private final DocumentRepository documentRepository;
+    private final FileIngestService fileIngestService;
+    private final StorageResolver storageResolver;
+    private final ProjectDossierService projectDossierService;
+    private final ProjectSearchIndex projectSearchIndex;
+
+    @Value("${dossier.export.timeout-ms:1800000}")
+    private long dossierTimeoutMillis;
 
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -112,27 +133,54 @@ public class ProjectController {
                 }
             }
 
-            // Traitement des fichiers
-            submissionDTO.setInfoSheetFrPath(processFile(infoSheetFr));
-            submissionDTO.setInfoSheetArPath(processFile(infoSheetAr));
-            submissionDTO.setConsentFormFrPath(processFile(consentFormFr));
-            submissionDTO.setConsentFormArPath(processFile(consentFormAr));
-            submissionDTO.setCommitmentCertificatePath(processFile(commitmentCertificate));
-            submissionDTO.setCvPath(processFile(cv));
-            submissionDTO.setProjectDescriptionFilePath(processFile(projectDescriptionFile));
-            submissionDTO.setEthicalConsiderationsFilePath(processFile(ethicalConsiderationsFile));
-            submissionDTO.setMotivationLetterPath(processFile(motivationLetter));
+            // Traitement des fichiers : écriture parallèle, en flux, nettoyée si la soumission échoue
+            Map<String, MultipartFile> parts = new LinkedHashMap<>();
+            parts.put("infoSheetFr", infoSheetFr);
+            parts.put("infoSheetAr", infoSheetAr);
+            parts.put("consentFormFr", consentFormFr);
+            parts.put("consentFormAr", consentFormAr);
+            parts.put("commitmentCertificate", commitmentCertificate);
+            parts.put("cv", cv);
+            parts.put("projectDescriptionFile", projectDescriptionFile);
+            parts.put("ethicalConsiderationsFile", ethicalConsiderationsFile);
+            parts.put("motivationLetter", motivationLetter);
+            if (otherDocuments != null) {
+                for (int i = 0; i < otherDocuments.length; i++) {
+                    parts.put("otherDocuments[" + i + "]", otherDocuments[i]);
+                }
+            }
+            parts.values().forEach(this::validateFile);
+
+            List<FileIngestService.StoredPart> storedParts = fileIngestService.ingest(parts);
+            Map<String, String> storedNames = storedParts.stream()
+                    .collect(Collectors.toMap(FileIngestService.StoredPart::partName, FileIngestService.StoredPart::fileName));
+
+            submissionDTO.setInfoSheetFrPath(storedNames.get("infoSheetFr"));
+            submissionDTO.setInfoSheetArPath(storedNames.get("infoSheetAr"));
+            submissionDTO.setConsentFormFrPath(storedNames.get("consentFormFr"));
+            submissionDTO.setConsentFormArPath(storedNames.get("consentFormAr"));
+            submissionDTO.setCommitmentCertificatePath(storedNames.get("commitmentCertificate"));
+            submissionDTO.setCvPath(storedNames.get("cv"));
+            submissionDTO.setProjectDescriptionFilePath(storedNames.get("projectDescriptionFile"));
+            submissionDTO.setEthicalConsiderationsFilePath(storedNames.get("ethicalConsiderationsFile"));
+            submissionDTO.setMotivationLetterPath(storedNames.get("motivationLetter"));
 
             // Traiter les autres documents
             if (otherDocuments != null && otherDocuments.length > 0) {
                 List<String> otherDocsPaths = new ArrayList<>();
-                for (MultipartFile file : otherDocuments) {
-                    otherDocsPaths.add(processFile(file));
+                for (int i = 0; i < otherDocuments.length; i++) {
+                    otherDocsPaths.add(storedNames.get("otherDocuments[" + i + "]"));
                 }
                 submissionDTO.setOtherDocumentsPaths(otherDocsPaths);
             }
 
-            Project project = projectService.submitProject(submissionDTO);
+            Project project;
+            try {
+                project = projectService.submitProject(submissionDTO);
+            } catch (RuntimeException e) {
+                fileIngestService.discard(storedParts);
+                throw e;
+            }
             return ResponseEntity.status(HttpStatus.CREATED).body(project);
 
         } catch (JsonProcessingException e) {
@@ -152,12 +200,11 @@ public class ProjectController {
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         try {
-            log.info("Attempting to get all projects");
-            log.info("Authenticated user: {}", authentication.getName());
-            log.info("User authorities: {}", authentication.getAuthorities());
-            log.info("Search params - search: {}, status: {}", search, status);
+            log.debug("Liste des projets - utilisateur: {}, search: {}, status: {}",
+                    authentication.getName(), search, status);
 
             // Convertir le statut string en enum si fourni
             ProjectStatus statusEnum = null;
@@ -169,53 +216,20 @@ public class ProjectController {
                 }
             }
 
-            Pageable pageable = PageRequest.of(page, size, Sort.by("submissionDate").descending());
-
-            Page<Project> projectsPage = projectService.findFilteredProjects(statusEnum, search, pageable);
-            List<Project> projects = projectsPage.getContent();
-
-            log.info("Number of projects retrieved from DB: {}", projects.size());
-            projects.forEach(p -> log.info("Project ID: {}, Title: {}", p.getId(), p.getTitle()));
-
-            List<Map<String, Object>> response = projects.stream().map(project -> {
-                Map<String, Object> projectMap = new HashMap<>();
-                projectMap.put("id", project.getId());
-                projectMap.put("title", project.getTitle());
-                projectMap.put("status", project.getStatus());
-                projectMap.put("submissionDate", project.getSubmissionDate());
-                projectMap.put("reference", project.getReference());
-
-                if (project.getPrincipalInvestigator() != null) {
-                    Map<String, Object> investigator = new HashMap<>();
-                    investigator.put("id", project.getPrincipalInvestigator().getId());
-                    investigator.put("name", project.getPrincipalInvestigator().getNom() + " " + project.getPrincipalInvestigator().getPrenom());
-                    projectMap.put("principalInvestigator", investigator);
-                }
-
-
-                if (project.getCoInvestigators() != null) {
-                    List<Map<String, String>> coInvestigators = project.getCoInvestigators().stream()
-                            .map(coInv -> {
-                                Map<String, String> coInvMap = new HashMap<>();
-                                coInvMap.put("name", coInv.getName());
-                                coInvMap.put("surname", coInv.getSurname());
-                                coInvMap.put("email", coInv.getEmail());
-                                coInvMap.put("title", coInv.getTitle() != null ? coInv.getTitle() : "");
-                                coInvMap.put("affiliation", coInv.getAffiliation() != null ? coInv.getAffiliation() : "");
-                                coInvMap.put("laboratory", coInv.getAddress() != null ? coInv.getAddress() : "");
-                                return coInvMap;
-                            })
-                            .collect(Collectors.toList());
-                    projectMap.put("coInvestigators", coInvestigators);
-                } else {
-                    projectMap.put("coInvestigators", Collections.emptyList());
+            // Mode curseur (?cursor= pour la première page) : { items, next }
+            if (cursor != null) {
+                try {
+                    return ResponseEntity.ok(projectService.findProjectListAfter(statusEnum, search, cursor,
+                            CursorPage.clampSize(size)));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(e.getMessage());
                 }
+            }
 
-                return projectMap;
-            }).collect(Collectors.toList());
+            Pageable pageable = PageRequest.of(page, size, Sort.by("submissionDate").descending());
 
-            log.info("Successfully built response for {} projects", projects.size());
-            return ResponseEntity.ok(response);
+            Page<ProjectListItemDTO> projectsPage = projectService.findProjectListPage(statusEnum, search, pageable);
+            return ResponseEntity.ok(projectsPage.getContent());
         } catch (Exception e) {
             log.error("Error retrieving projects", e);
             return ResponseEntity.internalServerError()
@@ -437,13 +451,14 @@ public class ProjectController {
                     .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
 
             // Si le document n'existe pas, le générer d'abord
-            if (project.getAvisFavorablePath() == null || !Files.exists(Paths.get(project.getAvisFavorablePath()))) {
+            if (project.getAvisFavorablePath() == null
+                    || !Files.exists(storageResolver.resolve(StorageArea.AVIS_FAVORABLE, project.getAvisFavorablePath()))) {
                 Path avisPath = avisFavorableService.generateAvisFavorable(project);
                 project.setAvisFavorablePath(avisPath.toString());
                 projectRepository.save(project);
             }
 
-            Path filePath = Paths.get(project.getAvisFavorablePath());
+            Path filePath = storageResolver.resolve(StorageArea.AVIS_FAVORABLE, project.getAvisFavorablePath());
             Resource resource = new UrlResource(filePath.toUri());
 
             if (!resource.exists() || !resource.isReadable()) {
@@ -492,6 +507,7 @@ public class ProjectController {
             project.setOpinionSent(true);
             project.setOpinionSentDate(LocalDateTime.now());
             projectRepository.save(project);
+            projectSearchIndex.indexAfterCommit(project.getId());
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -597,6 +613,8 @@ public class ProjectController {
             project.setReviewDate(LocalDateTime.now());
 
             projectRepository.saveAndFlush(project); // Force l'écriture en base
+            projectMembershipCache.invalidateProject(projectId);
+            projectSearchIndex.indexAfterCommit(projectId);
 
             notificationService.sendNotificationByIds(evaluatorIds,
                     "Projet assigné",
@@ -642,6 +660,7 @@ public class ProjectController {
                         "Cet évaluateur n'est pas assigné à ce projet");
             }
             projectRepository.save(project);
+            projectMembershipCache.invalidateProject(projectId);
 
             notificationService.sendNotification(evaluator,
                     "Retrait du projet",
@@ -677,73 +696,25 @@ public class ProjectController {
         }
     }
 
-    private String processFile(MultipartFile file) throws IOException {
-        if (file == null || file.isEmpty()) {
-            return null;
-        }
-
-        if (file.getSize() > 5 * 1024 * 1024) {
+    private void validateFile(MultipartFile file) {
+        if (file != null && !file.isEmpty() && file.getSize() > 5 * 1024 * 1024) {
             throw new IllegalArgumentException("File size exceeds 5MB limit");
         }
-
-        return fileStorageService.storeFile(file);
     }
 
     @GetMapping("/{projectId}/documents/{documentName}/preview")
-    public ResponseEntity<byte[]> previewDocument(
+    public ResponseEntity<Resource> previewDocument(
             @PathVariable Long projectId,
             @PathVariable String documentName) throws IOException {
-
-        Project project = projectService.getProjectById(projectId);
-        boolean documentExists = project.getDocuments().stream()
-                .anyMatch(doc -> doc.getName().equals(documentName));
-
-        if (!documentExists) {
-            throw new ResourceNotFoundException("Document not found");
-        }
-
-        byte[] fileContent = fileStorageService.loadFileAsBytes(documentName);
-        String contentType = determineContentType(documentName);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(contentType));
         // Important: Utiliser "inline" pour la prévisualisation au lieu de "attachment"
-        headers.setContentDisposition(ContentDisposition.inline().filename(documentName).build());
-
-        return new ResponseEntity<>(fileContent, headers, HttpStatus.OK);
+        return streamDocument(projectId, documentName, ContentDisposition.inline());
     }
 
     @GetMapping("/{projectId}/documents/{documentName}/content")
-    public ResponseEntity<byte[]> viewDocument(
+    public ResponseEntity<Resource> viewDocument(
             @PathVariable Long projectId,
-            @PathVariable String documentName,
-            HttpServletRequest request) throws IOException {
-
-        Project project = projectService.getProjectById(projectId);
-        boolean documentExists = project.getDocuments().stream()
-                .anyMatch(doc -> doc.getName().equals(documentName));
-
-        if (!documentExists) {
-            throw new ResourceNotFoundException("Document not found");
-        }
-
-        byte[] fileContent = fileStorageService.loadFileAsBytes(documentName);
-        // Chargement du fichier
-        Resource resource = fileStorageService.loadFileAsResource(documentName);
-        String contentType = determineContentType(documentName);
-
-        // Détermination du type de contenu
-        if (contentType == null || contentType.isEmpty()) {
-            contentType = "application/octet-stream";
-        }
-
-        String headerValue = "inline; filename=\"" + resource.getFilename() + "\"";
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(contentType));
-        headers.setContentDisposition(ContentDisposition.inline().filename(documentName).build());
-
-        return new ResponseEntity<>(fileContent, headers, HttpStatus.OK);
+            @PathVariable String documentName) throws IOException {
+        return streamDocument(projectId, documentName, ContentDisposition.inline());
     }
 
     private String determineContentType(String filename) {
@@ -770,26 +741,33 @@ public class ProjectController {
     }
 
     @GetMapping("/{projectId}/documents/{documentName}/download")
-    public ResponseEntity<byte[]> downloadDocument(
+    public ResponseEntity<Resource> downloadDocument(
             @PathVariable Long projectId,
             @PathVariable String documentName) throws IOException {
+        return streamDocument(projectId, documentName, ContentDisposition.attachment());
+    }
 
-        Project project = projectService.getProjectById(projectId);
-        boolean documentExists = project.getDocuments().stream()
-                .anyMatch(doc -> doc.getName().equals(documentName));
-
-        if (!documentExists) {
+    /**
+     * Diffuse le fichier depuis le disque sans le charger en mémoire. Spring gère les en-têtes Range (206)
+     * et répond 304 quand If-None-Match / If-Modified-Since correspondent à l'ETag / Last-Modified envoyés.
+     */
+    private ResponseEntity<Resource> streamDocument(Long projectId, String documentName,
+                                                    ContentDisposition.Builder disposition) throws IOException {
+        if (!projectRepository.existsDocumentByProjectIdAndName(projectId, documentName)) {
             throw new ResourceNotFoundException("Document not found");
         }
 
-        byte[] fileContent = fileStorageService.loadFileAsBytes(documentName);
-        String contentType = determineContentType(documentName);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(contentType));
-        headers.setContentDisposition(ContentDisposition.attachment().filename(documentName).build());
-
-        return new ResponseEntity<>(fileContent, headers, HttpStatus.OK);
+        FileSystemResource resource = fileStorageService.loadFileForStreaming(documentName);
+        long lastModified = resource.lastModified();
+        String eTag = "\"" + Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(lastModified) + "\"";
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(determineContentType(documentName)))
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.filename(documentName).build().toString())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .body(resource);
     }
 
     private String determineContentType(Resource resource) {
@@ -1127,10 +1105,35 @@ public class ProjectController {
 
 
 
-    private final String REPORTS_DIRECTORY = "uploads/reports";
 
 
 
+    // Dossier complet (documents, dernier rapport, avis favorable, manifeste) en un seul ZIP diffusé en flux.
+    // Délai async propre au dossier (pièces jointes volumineuses, liens lents) : au-delà, la tâche est annulée
+    // et la réponse interrompue (503, ou connexion coupée si le ZIP est déjà en cours d'envoi)
+    @GetMapping("/{id}/dossier.zip")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('EVALUATEUR') and @projectSecurity.isProjectReviewer(#id, authentication))")
+    public WebAsyncTask<Void> downloadDossier(@PathVariable Long id, HttpServletResponse response) {
+        ProjectDossierService.Dossier dossier = projectDossierService.prepare(id);
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(dossier.fileName()).build().toString());
+        WebAsyncTask<Void> task = new WebAsyncTask<>(dossierTimeoutMillis, () -> {
+            projectDossierService.writeZip(dossier, response.getOutputStream());
+            return null;
+        });
+        task.onTimeout(() -> {
+            log.warn("Téléchargement du dossier du projet {} interrompu après {} ms", id, dossierTimeoutMillis);
+            if (!response.isCommitted()) {
+                throw new AsyncRequestTimeoutException();
+            }
+            // ZIP déjà en partie envoyé : exception non gérée, le conteneur coupe la connexion sans terminer le flux
+            throw new IllegalStateException("Délai dépassé pour le dossier du projet " + id);
+        });
+        return task;
+    }
+
     @GetMapping("/{projectId}/full-report")
     public ResponseEntity<Resource> downloadFullReport(@PathVariable Long projectId) {
         try {
@@ -1144,7 +1147,7 @@ public class ProjectController {
             Report report = reports.get(0);
 
             // 2. Construire le chemin complet du fichier
-            Path filePath = Paths.get(REPORTS_DIRECTORY, report.getFileName()).normalize();
+            Path filePath = storageResolver.resolve(StorageArea.REPORTS, report.getFileName());
             Resource resource = new UrlResource(filePath.toUri());
 
             // 3. Vérifier que le fichier existe et est accessible
@@ -1179,6 +1182,9 @@ public class ProjectController {
         String filename = fileStorageService.updateFile(file,document);
         document.setModificationDate(LocalDateTime.now());
         document.setName(filename);
+        document.setPath(fileStorageService.isContentAddressed()
+                ? filename
+                : fileStorageService.loadFile(filename).toString());
 
         return  ResponseEntity.ok(documentRepository.save(document));
     }
@@ -9,6 +9,7 @@ import com.example.cerbo.entity.enums.ReportStatus;
 import com.example.cerbo.exception.ResourceNotFoundException;
 import com.example.cerbo.repository.*;
 import com.example.cerbo.service.FileStorageService;
+import com.example.cerbo.service.searchService.ProjectSearchIndex;
 import com.example.cerbo.service.NotificationService;
 import com.example.cerbo.service.RemarkService;
 import com.example.cerbo.service.chatGptService.ChatGptService;
@@ -50,6 +51,7 @@ public class RemarkController {
     private final DocumentReviewRepository documentReviewRepository;
     private final ReportRepository reportRepository;
     private final DocumentReviewService documentReviewService;
+    private final ProjectSearchIndex projectSearchIndex;
 
     @GetMapping
     @PreAuthorize("@projectSecurity.isProjectMember(#projectId, authentication)")
@@ -149,6 +151,7 @@ public class RemarkController {
         if (project.getResponseDeadline() != null && LocalDateTime.now().isAfter(project.getResponseDeadline())) {
             project.setStatus(ProjectStatus.REJETE);
             projectRepository.save(project);
+            projectSearchIndex.indexAfterCommit(projectId);
             throw new RuntimeException("Délai de réponse expiré");
         }
 
@@ -0,0 +1,94 @@
+package com.example.cerbo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page "keyset" : les éléments et un curseur opaque vers la page suivante (null s'il n'y en a plus).
+ * Le curseur encode la clé de tri (date, id) du dernier élément renvoyé ; une date absente est encodée vide.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int MAX_SIZE = 100;
+
+    // En-têtes des listes simples limitées (le corps reste un tableau)
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+    private String next;
+
+    /**
+     * Construit la page à partir de {@code size + 1} lignes lues : la ligne en trop indique qu'il existe une suite.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+
+    /**
+     * Réponse "liste simple" : les éléments en corps, le total et la présence d'une suite en en-têtes, avec le
+     * curseur à passer au point d'accès keyset ({@code ?cursor=}) pour lire la suite.
+     */
+    public ResponseEntity<List<T>> toListResponse(long total) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(total))
+                .header(HAS_NEXT_HEADER, String.valueOf(next != null));
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next);
+        }
+        return response.body(items);
+    }
+
+    /**
+     * Taille de page demandée ramenée dans [1, MAX_SIZE].
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public static String encode(LocalDateTime date, Long id) {
+        String raw = (date != null ? date.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur ; une chaîne vide (première page) donne null.
+     */
+    public static Key decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            String date = raw.substring(0, separator);
+            return new Key(date.isEmpty() ? null : LocalDateTime.parse(date), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Curseur invalide", e);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Key {
+        private LocalDateTime date;
+        private Long id;
+    }
+}
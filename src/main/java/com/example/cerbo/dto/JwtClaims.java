@@ -0,0 +1,36 @@
+package com.example.cerbo.dto;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims d'un token déjà vérifié (signature + expiration), extraits une seule fois
+ * par JwtTokenUtil et réutilisés par le filtre.
+ */
+@Getter
+public final class JwtClaims {
+    private final Long userId;
+    private final String subject;
+    private final List<String> roles;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    public JwtClaims(Long userId, String subject, List<String> roles, Date issuedAt, Date expiration) {
+        this.userId = userId;
+        this.subject = subject;
+        this.roles = roles != null ? List.copyOf(roles) : Collections.emptyList();
+        this.issuedAt = issuedAt != null ? new Date(issuedAt.getTime()) : null;
+        this.expiration = expiration != null ? new Date(expiration.getTime()) : null;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt != null ? new Date(issuedAt.getTime()) : null;
+    }
+
+    public Date getExpiration() {
+        return expiration != null ? new Date(expiration.getTime()) : null;
+    }
+}
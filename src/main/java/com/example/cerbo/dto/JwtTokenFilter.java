@@ -1,8 +1,11 @@
 package com.example.cerbo.dto;
 
+import com.example.cerbo.security.JwtAuthenticationDetails;
+import com.example.cerbo.security.JwtUserPrincipal;
+import com.example.cerbo.security.StatelessReadMatcher;
+import com.example.cerbo.security.UserPrincipalCache;
 import com.example.cerbo.service.UserDetailsServiceImp;
 import com.example.cerbo.service.blacklistService.BlacklistService;
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,7 +17,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -29,6 +31,8 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     private final UserDetailsServiceImp userDetailsServiceImp;
     private final JwtTokenUtil jwtTokenUtil;
     private final BlacklistService blacklistService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final StatelessReadMatcher statelessReadMatcher;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -47,21 +51,29 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                 return;
             }
 
-            // Vérifie si le token est invalide ou expiré
-            if (!jwtTokenUtil.validateToken(token)) {
+            // Vérifie le token une seule fois (signature + expiration) et récupère ses claims
+            JwtClaims claims = jwtTokenUtil.parseAccessToken(token);
+            if (claims == null) {
                 logger.warn("Token expiré ou invalide !");
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token expiré ou invalide");
                 return;
             }
 
-            // Token est valide : on extrait les infos
-            String email = jwtTokenUtil.getUsernameFromToken(token);
-            Claims claims = jwtTokenUtil.getClaimsFromToken(token, jwtTokenUtil.getAccessTokenSecretKey());
-            List<String> roles = claims.get("roles", List.class);
+            String email = claims.getSubject();
+            List<String> roles = claims.getRoles();
 
             // Si l'utilisateur n'est pas encore authentifié, on l'authentifie
             if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsServiceImp.loadUserByUsername(email);
+                UserDetails userDetails;
+                if (statelessReadMatcher.matches(request)) {
+                    // Lecture protégée par rôle : principal construit depuis les claims, sans accès base
+                    userDetails = new JwtUserPrincipal(claims.getUserId(), email, roles,
+                            userDetailsServiceImp::findByEmail);
+                } else {
+                    // Évite findByEmail + chargement des rôles à chaque requête
+                    userDetails = userPrincipalCache.get(email, claims.getIssuedAt(),
+                            userDetailsServiceImp::loadUserByUsername);
+                }
                 List<SimpleGrantedAuthority> authorities = roles.stream()
                         .map(SimpleGrantedAuthority::new)
                         .collect(Collectors.toList());
@@ -71,7 +83,8 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                         null,
                         authorities
                 );
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // L'id utilisateur du token reste disponible sans requête (compteur de notifications...)
+                authenticationToken.setDetails(new JwtAuthenticationDetails(request, claims.getUserId()));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
         }
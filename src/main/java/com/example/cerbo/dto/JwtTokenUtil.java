@@ -27,6 +27,9 @@ public class JwtTokenUtil {
     private final long accessTokenExpiration;
     private final long refreshTokenExpiration;
     private final SecretKey accessTokenSecretKey ;
+    // Les JwtParser construits sont immuables et thread-safe : on les réutilise
+    private final JwtParser accessTokenParser;
+    private final JwtParser refreshTokenParser;
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenUtil.class);
 
     public JwtTokenUtil(
@@ -45,25 +48,33 @@ public class JwtTokenUtil {
 
         this.accessTokenSecretKey = Keys.hmacShaKeyFor(accessSecret.getBytes(StandardCharsets.UTF_8));
         this.refreshTokenSecretKey = Keys.hmacShaKeyFor(refreshSecret.getBytes(StandardCharsets.UTF_8));
+        this.accessTokenParser = Jwts.parserBuilder().setSigningKey(accessTokenSecretKey).build();
+        this.refreshTokenParser = Jwts.parserBuilder().setSigningKey(refreshTokenSecretKey).build();
         this.accessTokenExpiration = accessExpiration;
         this.refreshTokenExpiration = refreshExpiration;
     }
 
     // Génère un token à partir d'une Authentication
     public String generateToken(Authentication authentication) {
+        return generateToken(authentication, null);
+    }
+
+    // Génère un token à partir d'une Authentication, avec l'id utilisateur en claim
+    public String generateToken(Authentication authentication, Long userId) {
         String username = authentication.getName();
         List<String> roles = authentication.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role) // <- ajouter ROLE_ si absent
                 .collect(Collectors.toList());
 
-        return buildToken(username, roles, accessTokenSecretKey, accessTokenExpiration);
+        return buildToken(username, roles, userId, accessTokenSecretKey, accessTokenExpiration);
     }
     public String generateAccessToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("roles", user.getRoles().stream()
                 .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)// Enlevez le préfixe car il sera rajouté plus tard
                 .collect(Collectors.toList()));
+        claims.put("userId", user.getId());
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -75,7 +86,7 @@ public class JwtTokenUtil {
     }
     // Génère un token à partir d'un username et roles
     public String generateToken(String username, Collection<String> roles) {
-        return buildToken(username, roles, accessTokenSecretKey, accessTokenExpiration);
+        return buildToken(username, roles, null, accessTokenSecretKey, accessTokenExpiration);
     }
 
     // Génère un refresh token à partir d'une Authentication
@@ -83,6 +94,7 @@ public class JwtTokenUtil {
         return buildToken(
                 authentication.getName(),
                 Collections.emptyList(), // Pas de rôles dans le refresh token
+                null,
                 refreshTokenSecretKey,
                 refreshTokenExpiration
         );
@@ -90,15 +102,16 @@ public class JwtTokenUtil {
 
     // Génère un refresh token à partir d'un username et roles
     public String generateRefreshToken(String username, Collection<String> roles) {
-        return buildToken(username, roles, refreshTokenSecretKey, refreshTokenExpiration);
+        return buildToken(username, roles, null, refreshTokenSecretKey, refreshTokenExpiration);
     }
 
     // Méthode privée pour construire les tokens
-    private String buildToken(String username, Collection<String> roles, SecretKey key, long expiration) {
+    private String buildToken(String username, Collection<String> roles, Long userId, SecretKey key, long expiration) {
         System.out.println(expiration);
         return Jwts.builder()
                 .setSubject(username)
                 .claim("roles", roles)
+                .claim("userId", userId) // ignoré si null
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(key, SignatureAlgorithm.HS256) // Changé de HS512 à HS256
@@ -121,32 +134,58 @@ public class JwtTokenUtil {
         return validateToken(token, refreshTokenSecretKey);
     }
 
-    // Dans JwtTokenFilter.java, modifiez la méthode validateToken pour mieux logger les erreurs
+    /**
+     * Vérifie l'access token une seule fois et retourne ses claims,
+     * ou null si le token est invalide ou expiré.
+     */
+    public JwtClaims parseAccessToken(String token) {
+        Claims claims = parseOrNull(token, accessTokenParser);
+        if (claims == null) {
+            return null;
+        }
+        return new JwtClaims(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("roles", List.class),
+                claims.getIssuedAt(),
+                claims.getExpiration()
+        );
+    }
+
     private boolean validateToken(String token, SecretKey key) {
+        return parseOrNull(token, parserFor(key)) != null;
+    }
+
+    private Claims parseOrNull(String token, JwtParser parser) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException ex) {
             logger.error("JWT expired: {}", ex.getMessage());
-            return false;
+            return null;
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT: {}", ex.getMessage());
-            return false;
+            return null;
         } catch (JwtException | IllegalArgumentException ex) {
             logger.error("JWT error: {}", ex.getMessage());
-            return false;
+            return null;
+        }
+    }
+
+    private JwtParser parserFor(SecretKey key) {
+        if (key == accessTokenSecretKey) {
+            return accessTokenParser;
+        }
+        if (key == refreshTokenSecretKey) {
+            return refreshTokenParser;
         }
+        return Jwts.parserBuilder().setSigningKey(key).build();
     }
+
     public SecretKey getAccessTokenSecretKey() {
         return this.accessTokenSecretKey;
     }
     public Claims getClaimsFromToken(String token, SecretKey key) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key) // Corrigé "setSigningKey" (il manquait un 'n')
-                .build()
+        return parserFor(key)
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,9 @@
+package com.example.cerbo.dto;
+
+import com.example.cerbo.entity.enums.EmailDigestMode;
+import lombok.Data;
+
+@Data
+public class NotificationPreferenceDto {
+    private EmailDigestMode emailDigestMode;
+}
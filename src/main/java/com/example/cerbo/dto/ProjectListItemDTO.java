@@ -0,0 +1,71 @@
+package com.example.cerbo.dto;
+
+import com.example.cerbo.entity.Project;
+import com.example.cerbo.entity.enums.ProjectStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ligne de la liste des projets (GET /api/projects), construite par projection JPQL.
+ * Les co-investigateurs de toute la page sont chargés ensuite en une seule requête.
+ */
+@Data
+@NoArgsConstructor
+public class ProjectListItemDTO {
+    private Long id;
+    private String title;
+    private ProjectStatus status;
+    private LocalDateTime submissionDate;
+    private String reference;
+    private PrincipalInvestigatorRef principalInvestigator;
+    private List<CoInvestigatorItem> coInvestigators = new ArrayList<>();
+
+    // Constructeur utilisé par la projection "SELECT new ..." de ProjectRepository
+    public ProjectListItemDTO(Long id, String title, ProjectStatus status, LocalDateTime submissionDate,
+                              String reference, Long investigatorId, String investigatorNom, String investigatorPrenom) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.submissionDate = submissionDate;
+        this.reference = reference;
+        if (investigatorId != null) {
+            this.principalInvestigator = new PrincipalInvestigatorRef(investigatorId, investigatorNom + " " + investigatorPrenom);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PrincipalInvestigatorRef {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CoInvestigatorItem {
+        private String name;
+        private String surname;
+        private String email;
+        private String title;
+        private String affiliation;
+        private String laboratory;
+
+        public static CoInvestigatorItem from(Project.CoInvestigator coInv) {
+            return new CoInvestigatorItem(
+                    coInv.getName(),
+                    coInv.getSurname(),
+                    coInv.getEmail(),
+                    coInv.getTitle() != null ? coInv.getTitle() : "",
+                    coInv.getAffiliation() != null ? coInv.getAffiliation() : "",
+                    coInv.getAddress() != null ? coInv.getAddress() : ""
+            );
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.cerbo.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +14,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_audit_log_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_audit_log_username_timestamp", columnList = "username, timestamp"),
+        @Index(name = "idx_audit_log_action_type_timestamp", columnList = "actionType, timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +26,8 @@ import java.time.LocalDateTime;
 public class AuditLog {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // Clé de partitionnement mensuel (AuditPartitionManager)
+    @Column(nullable = false)
     private LocalDateTime timestamp;
     private String actionType;
     private String entityType;
@@ -0,0 +1,43 @@
+package com.example.cerbo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Index inversé du journal d'audit : un jeton (mot des détails, utilisateur, action...) par ligne.
+ * timestamp est recopié de l'entrée pour partitionner cette table comme audit_log.
+ */
+@Entity
+@Table(name = "audit_log_tokens", indexes = {
+        @Index(name = "idx_audit_log_tokens_token_timestamp", columnList = "token, timestamp")
+})
+@IdClass(AuditLogToken.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogToken {
+
+    @Id
+    @Column(length = 64)
+    private String token;
+
+    @Id
+    @Column(name = "log_id")
+    private Long logId;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String token;
+        private Long logId;
+    }
+}
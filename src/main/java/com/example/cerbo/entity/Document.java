@@ -2,6 +2,7 @@ package com.example.cerbo.entity;
 
 import com.example.cerbo.entity.enums.DocumentType;
 import com.example.cerbo.entity.enums.RemarkStatus;
+import com.example.cerbo.service.storageService.DocumentFileListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,6 +18,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(DocumentFileListener.class)
 public class Document {
 
     @Id
@@ -0,0 +1,39 @@
+package com.example.cerbo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fichier stocké une seule fois par contenu (SHA-256). refCount compte les lignes qui pointent dessus
+ * (documents, photos, images...) ; à zéro, la ligne reste et le fichier est laissé au ramasse-miettes.
+ */
+@Entity
+@Table(name = "file_blobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FileBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String sha256;
+
+    // Nom sur disque : <sha256><extension>
+    @Column(nullable = false, unique = true, length = 100)
+    private String fileName;
+
+    private long size;
+
+    private int refCount;
+
+    private LocalDateTime createdAt;
+}
@@ -11,7 +11,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "meeting")
+@Table(name = "meeting", indexes = {
+        @Index(name = "idx_meeting_date", columnList = "date"),
+        @Index(name = "idx_meeting_year_status", columnList = "year, status")
+})
 @Data
 public class Meeting {
     @Id
@@ -11,6 +11,9 @@ import lombok.EqualsAndHashCode;
 @Entity
 @Table(name = "meeting_attendees", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"meeting_id", "user_id"})
+}, indexes = {
+        // Réunions d'un évaluateur : l'unicité (meeting_id, user_id) ne sert pas la recherche par user_id
+        @Index(name = "idx_meeting_attendees_user_meeting", columnList = "user_id, meeting_id")
 })
 @Data
 @NoArgsConstructor
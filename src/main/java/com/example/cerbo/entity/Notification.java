@@ -12,7 +12,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_recipient_sent_date_id", columnList = "recipient_id, sentDate, id"),
+        @Index(name = "idx_notifications_recipient_status", columnList = "recipient_id, status"),
+        @Index(name = "idx_notifications_status_sent_date", columnList = "status, sentDate")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,41 @@
+package com.example.cerbo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification lue sortie de la table notifications par la politique de rétention.
+ * Forme compacte : même id, destinataire sans clé étrangère, pas de statut (toujours lue).
+ */
+@Entity
+@Table(name = "notifications_archive", indexes = {
+        @Index(name = "idx_notifications_archive_recipient_sent_date", columnList = "recipientId, sentDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long recipientId;
+
+    private String title;
+
+    @Column(nullable = false)
+    private String content;
+
+    private String directionUrl;
+
+    private LocalDateTime sentDate;
+
+    private LocalDateTime archivedAt;
+}
@@ -5,6 +5,7 @@ import com.example.cerbo.entity.enums.EvaluationStatus;
 import com.example.cerbo.entity.enums.ProjectStatus;
 import com.example.cerbo.entity.enums.ReportStatus;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.example.cerbo.service.searchService.ProjectSearchIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,7 +24,10 @@ import java.util.Set;
 import java.util.*;
 
 @Entity
-@Table(name = "projects")
+@EntityListeners(ProjectSearchIndexListener.class)
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_submission_date_id", columnList = "submissionDate, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", indexes = {
+        @Index(name = "idx_reports_status_deadline", columnList = "status, responseDeadline"),
+        @Index(name = "idx_reports_project_creation", columnList = "project_id, creationDate")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
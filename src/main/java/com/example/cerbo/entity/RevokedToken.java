@@ -0,0 +1,38 @@
+package com.example.cerbo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token révoqué (logout). On ne stocke que le SHA-256 du token, jamais le token lui-même.
+ * La ligne peut être supprimée dès que le token a expiré.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revokedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Horloge du nœud qui révoque : fenêtre de synchronisation des autres nœuds
+    private LocalDateTime revokedAt;
+}
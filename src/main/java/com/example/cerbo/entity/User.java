@@ -1,5 +1,6 @@
 package com.example.cerbo.entity;
 
+import com.example.cerbo.entity.enums.EmailDigestMode;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -34,6 +35,11 @@ public class User {
     private String photoUrl; // URL de la photo stockée
     @Column(nullable = false, columnDefinition = "boolean default true") // Changez à true si vous voulez que ce soit activé par défaut
     private boolean useAI = true;
+
+    // Emails de notification : un par notification (null ou IMMEDIATE) ou regroupés par heure / par jour
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EmailDigestMode emailDigestMode;
     public String getFullName() {
         return (prenom != null ? prenom + " " : "") + (nom != null ? nom : "");
     }
@@ -0,0 +1,41 @@
+package com.example.cerbo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Message temps réel relayé entre instances (websocket.bus=db) : chaque instance relit les lignes récentes
+ * et remet aux sessions qu'elle détient celles publiées par les autres. Purgé après quelques minutes.
+ */
+@Entity
+@Table(name = "ws_relay_messages", indexes = {
+        @Index(name = "idx_ws_relay_messages_created_at", columnList = "createdAt, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WsRelayMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String originNode;
+
+    private Long userId;
+
+    private String email;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,7 @@
+package com.example.cerbo.entity.enums;
+
+public enum EmailDigestMode {
+    IMMEDIATE,
+    HOURLY,
+    DAILY
+}
@@ -0,0 +1,9 @@
+package com.example.cerbo.entity.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    // Notification en attente du prochain récapitulatif de son destinataire
+    DIGEST,
+    SENT,
+    FAILED
+}
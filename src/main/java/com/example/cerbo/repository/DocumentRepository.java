@@ -6,7 +6,9 @@ import com.example.cerbo.entity.Document;
 import com.example.cerbo.entity.Event;
 import com.example.cerbo.entity.enums.RemarkStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -30,4 +32,9 @@ public interface DocumentRepository extends JpaRepository<Document,Long> {
 //            "FROM Document d WHERE d.project.id = :projectId")
 //    List<DocumentInfoDTO> findBasicInfoByProjectId(Long projectId);
 
+    // Migration du layout : chemins complets stockés se terminant par /nom (les noms seuls restent valides)
+    @Modifying
+    @Query("UPDATE Document d SET d.path = :newPath WHERE d.path <> :fileName AND d.path LIKE :pathSuffix ESCAPE '!'")
+    int relocatePath(@Param("fileName") String fileName, @Param("newPath") String newPath,
+                     @Param("pathSuffix") String pathSuffix);
 }
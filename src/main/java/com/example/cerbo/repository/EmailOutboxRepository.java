@@ -0,0 +1,49 @@
+package com.example.cerbo.repository;
+
+import com.example.cerbo.entity.EmailOutbox;
+import com.example.cerbo.entity.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<Long> findDueIds(@Param("status") OutboxStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Prise en charge : repousse nextAttemptAt au-delà du bail pour que les autres instances ignorent ces lignes
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :leaseUntil, e.claimToken = :token " +
+            "WHERE e.id IN :ids AND e.status = com.example.cerbo.entity.enums.OutboxStatus.PENDING AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil, @Param("token") String token);
+
+    List<EmailOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = com.example.cerbo.entity.enums.OutboxStatus.SENT, e.sentAt = :sentAt, " +
+            "e.attempts = e.attempts + 1, e.lastError = NULL, e.claimToken = NULL WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    // Récapitulatifs : entrées échues, regroupées par destinataire
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByRecipientAscIdAsc(
+            OutboxStatus status, LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.id IN :ids AND e.status = com.example.cerbo.entity.enums.OutboxStatus.DIGEST")
+    int deleteDigestEntries(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = com.example.cerbo.entity.enums.OutboxStatus.SENT AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,53 @@
+package com.example.cerbo.repository;
+
+import com.example.cerbo.entity.FileBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface FileBlobRepository extends JpaRepository<FileBlob, Long> {
+
+    Optional<FileBlob> findBySha256(String sha256);
+
+    Optional<FileBlob> findByFileName(String fileName);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount + :count WHERE b.id = :id")
+    int addReferences(@Param("id") Long id, @Param("count") int count);
+
+    // La ligne est conservée à zéro : son fichier part au ramasse-miettes et un nouvel envoi identique la réutilise
+    @Modifying
+    @Transactional
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.id = :id AND b.refCount > 0")
+    int releaseReference(@Param("id") Long id);
+
+    // --- Migration vers le stockage par contenu : réécriture des références d'un ancien nom de fichier ---
+
+    // documents.path contient soit le nom seul, soit un chemin absolu se terminant par /nom
+    @Modifying
+    @Query("UPDATE Document d SET d.path = CONCAT(SUBSTRING(d.path, 1, LENGTH(d.path) - LENGTH(:oldName)), :newName) " +
+            "WHERE d.path = :oldName OR d.path LIKE :pathSuffix ESCAPE '!'")
+    int rewriteDocumentPaths(@Param("oldName") String oldName, @Param("newName") String newName,
+                             @Param("pathSuffix") String pathSuffix);
+
+    @Modifying
+    @Query("UPDATE Document d SET d.name = :newName WHERE d.name = :oldName")
+    int rewriteDocumentNames(@Param("oldName") String oldName, @Param("newName") String newName);
+
+    @Modifying
+    @Query("UPDATE User u SET u.photoUrl = :newName WHERE u.photoUrl = :oldName")
+    int rewriteUserPhotos(@Param("oldName") String oldName, @Param("newName") String newName);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.filename = :newName WHERE e.filename = :oldName")
+    int rewriteEventFiles(@Param("oldName") String oldName, @Param("newName") String newName);
+
+    @Modifying
+    @Query("UPDATE Article a SET a.filename = :newName WHERE a.filename = :oldName")
+    int rewriteArticleFiles(@Param("oldName") String oldName, @Param("newName") String newName);
+}
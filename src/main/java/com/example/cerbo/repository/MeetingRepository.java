@@ -1,19 +1,27 @@
 package com.example.cerbo.repository;
 
 import com.example.cerbo.entity.Meeting;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface MeetingRepository extends JpaRepository<Meeting, Long> {
+public interface MeetingRepository extends JpaRepository<Meeting, Long>, JpaSpecificationExecutor<Meeting> {
     List<Meeting> findByYear(int year);
     List<Meeting> findByDate(LocalDate date); // Ajout de cette méthode
+
+    // Vue mensuelle : intervalle [from, to) sur l'index meeting(date)
+    List<Meeting> findByYearAndDateGreaterThanEqualAndDateLessThanOrderByDateAscTimeAsc(int year, LocalDate from, LocalDate to);
     boolean existsByMonthAndYear(String month, int year);
     @Modifying
     @Query("DELETE FROM Meeting m WHERE m.year = :year")
@@ -32,4 +40,20 @@ public interface MeetingRepository extends JpaRepository<Meeting, Long> {
     List<Meeting> findByYearAndAttendeeId(
             @Param("year") int year,
             @Param("evaluatorId") Long evaluatorId);
-}
\ No newline at end of file
+
+    // Réunions passées (jour antérieur, ou aujourd'hui à une heure dépassée) pas encore terminées
+    @Query("SELECT m.id FROM Meeting m WHERE m.time IS NOT NULL " +
+            "AND (m.date < :today OR (m.date = :today AND m.time < :now)) " +
+            "AND (m.status IS NULL OR m.status <> 'Terminée')")
+    List<Long> findPastUnfinishedIds(@Param("today") LocalDate today, @Param("now") LocalTime now);
+
+    // Parmi les candidats, ceux encore non terminés, verrouillés jusqu'à la fin de la transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m.id FROM Meeting m WHERE m.id IN :ids AND (m.status IS NULL OR m.status <> 'Terminée')")
+    List<Long> lockUnfinishedIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Meeting m SET m.status = 'Terminée' WHERE m.id IN :ids " +
+            "AND (m.status IS NULL OR m.status <> 'Terminée')")
+    int markFinished(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,30 @@
+package com.example.cerbo.repository;
+
+import com.example.cerbo.entity.NotificationArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    // Notifications lues plus anciennes que la limite, par ordre d'id (un lot à la fois)
+    @Query("SELECT n.id FROM Notification n WHERE n.status = com.example.cerbo.entity.enums.NotificationStatus.LUE " +
+            "AND n.sentDate < :before ORDER BY n.id")
+    List<Long> findArchivableIds(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("INSERT INTO NotificationArchive (id, recipientId, title, content, directionUrl, sentDate, archivedAt) " +
+            "SELECT n.id, n.recipient.id, n.title, n.content, n.directionUrl, n.sentDate, LOCAL_DATETIME " +
+            "FROM Notification n WHERE n.id IN :ids")
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids AND n.status = com.example.cerbo.entity.enums.NotificationStatus.LUE")
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+}
@@ -3,9 +3,14 @@ package com.example.cerbo.repository;
 import com.example.cerbo.entity.Notification;
 import com.example.cerbo.entity.User;
 import com.example.cerbo.entity.enums.NotificationStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,4 +18,31 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByRecipientOrderBySentDateDesc(User recipient);
     List<Notification> findByRecipientIdOrderBySentDateDesc(Long userId);
     int countByRecipientAndStatus(User recipient, NotificationStatus status);
+    int countByRecipientIdAndStatus(Long recipientId, NotificationStatus status);
+    long countByRecipientEmail(String email);
+
+    // Passage en LUE uniquement si la notification ne l'était pas encore (1 si elle a changé d'état)
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = com.example.cerbo.entity.enums.NotificationStatus.LUE " +
+            "WHERE n.id = :id AND n.status = com.example.cerbo.entity.enums.NotificationStatus.NON_LUE")
+    int markAsReadIfUnread(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = com.example.cerbo.entity.enums.NotificationStatus.LUE " +
+            "WHERE n.recipient.id = :recipientId AND n.status = com.example.cerbo.entity.enums.NotificationStatus.NON_LUE")
+    int markAllAsReadForRecipient(@Param("recipientId") Long recipientId);
+
+    // Pagination keyset sur (sentDate, id) pour un destinataire ; afterId null : première page.
+    // sentDate peut être null : ces lignes viennent en dernier (NULL est la plus petite valeur en tri DESC)
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND " +
+            "(:afterId IS NULL " +
+            "OR (:afterDate IS NOT NULL AND (n.sentDate < :afterDate " +
+            "OR (n.sentDate = :afterDate AND n.id < :afterId) OR n.sentDate IS NULL)) " +
+            "OR (:afterDate IS NULL AND n.sentDate IS NULL AND n.id < :afterId)) " +
+            "ORDER BY n.sentDate DESC, n.id DESC")
+    List<Notification> findByRecipientIdAfter(
+            @Param("recipientId") Long recipientId,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 }
\ No newline at end of file
@@ -1,20 +1,25 @@
 package com.example.cerbo.repository;
 
+import com.example.cerbo.dto.ProjectListItemDTO;
 import com.example.cerbo.entity.Project;
 import com.example.cerbo.entity.Document;
 import com.example.cerbo.entity.User;
 import com.example.cerbo.entity.enums.ProjectStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -58,6 +63,70 @@ public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpec
             @Param("search") String search,
             Pageable pageable);
 
+    // Liste paginée en projection (une requête + le count), sans charger les entités
+    @Query(value = "SELECT new com.example.cerbo.dto.ProjectListItemDTO(" +
+            "p.id, p.title, p.status, p.submissionDate, p.reference, pi.id, pi.nom, pi.prenom) " +
+            "FROM Project p LEFT JOIN p.principalInvestigator pi WHERE " +
+            "(:status IS NULL OR p.status = :status) AND " +
+            "(:pattern IS NULL OR " +
+            "LOWER(p.title) LIKE :pattern OR " +
+            "LOWER(p.reference) LIKE :pattern OR " +
+            "LOWER(pi.email) LIKE :pattern OR " +
+            "LOWER(pi.nom) LIKE :pattern OR " +
+            "LOWER(pi.prenom) LIKE :pattern)",
+            countQuery = "SELECT COUNT(p) FROM Project p LEFT JOIN p.principalInvestigator pi WHERE " +
+                    "(:status IS NULL OR p.status = :status) AND " +
+                    "(:pattern IS NULL OR " +
+                    "LOWER(p.title) LIKE :pattern OR " +
+                    "LOWER(p.reference) LIKE :pattern OR " +
+                    "LOWER(pi.email) LIKE :pattern OR " +
+                    "LOWER(pi.nom) LIKE :pattern OR " +
+                    "LOWER(pi.prenom) LIKE :pattern)")
+    Page<ProjectListItemDTO> findProjectListItems(
+            @Param("status") ProjectStatus status,
+            @Param("pattern") String pattern,
+            Pageable pageable);
+
+    // Pagination keyset sur (submissionDate, id) : le coût ne dépend pas de la profondeur de page
+    @Query("SELECT new com.example.cerbo.dto.ProjectListItemDTO(" +
+            "p.id, p.title, p.status, p.submissionDate, p.reference, pi.id, pi.nom, pi.prenom) " +
+            "FROM Project p LEFT JOIN p.principalInvestigator pi WHERE " +
+            "(:status IS NULL OR p.status = :status) AND " +
+            "(:pattern IS NULL OR " +
+            "LOWER(p.title) LIKE :pattern OR " +
+            "LOWER(p.reference) LIKE :pattern OR " +
+            "LOWER(pi.email) LIKE :pattern OR " +
+            "LOWER(pi.nom) LIKE :pattern OR " +
+            "LOWER(pi.prenom) LIKE :pattern) AND " +
+            "(:afterDate IS NULL OR p.submissionDate < :afterDate " +
+            "OR (p.submissionDate = :afterDate AND p.id < :afterId)) " +
+            "ORDER BY p.submissionDate DESC, p.id DESC")
+    List<ProjectListItemDTO> findProjectListItemsAfter(
+            @Param("status") ProjectStatus status,
+            @Param("pattern") String pattern,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // Hydratation des résultats de l'index de recherche (l'ordre est rétabli côté service)
+    @Query("SELECT new com.example.cerbo.dto.ProjectListItemDTO(" +
+            "p.id, p.title, p.status, p.submissionDate, p.reference, pi.id, pi.nom, pi.prenom) " +
+            "FROM Project p LEFT JOIN p.principalInvestigator pi WHERE p.id IN :ids")
+    List<ProjectListItemDTO> findProjectListItemsByIds(@Param("ids") Collection<Long> ids);
+
+    // Documents de l'index de recherche : [id, status, reference, title, projectDescription, nom, prenom, email]
+    @Query("SELECT p.id, p.status, p.reference, p.title, p.projectDescription, pi.nom, pi.prenom, pi.email " +
+            "FROM Project p LEFT JOIN p.principalInvestigator pi")
+    List<Object[]> findSearchDocuments();
+
+    @Query("SELECT p.id, p.status, p.reference, p.title, p.projectDescription, pi.nom, pi.prenom, pi.email " +
+            "FROM Project p LEFT JOIN p.principalInvestigator pi WHERE p.id = :id")
+    List<Object[]> findSearchDocument(@Param("id") Long id);
+
+    // Co-investigateurs de plusieurs projets en une seule requête : [projectId, CoInvestigator]
+    @Query("SELECT p.id, c FROM Project p JOIN p.coInvestigators c WHERE p.id IN :projectIds")
+    List<Object[]> findCoInvestigatorsByProjectIds(@Param("projectIds") Collection<Long> projectIds);
+
     // Alternative simplifiée pour certains cas
     @EntityGraph(attributePaths = {"principalInvestigator"})
     Page<Project> findByStatusAndTitleContainingIgnoreCaseOrReferenceContainingIgnoreCase(
@@ -116,12 +185,37 @@ public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpec
     Optional<Project> findByIdAndReviewerIdWithDocuments(
             @Param("projectId") Long projectId,
             @Param("reviewerId") Long reviewerId);
+    @Query("SELECT COUNT(d) > 0 FROM Document d WHERE d.project.id = :projectId AND d.name = :name")
+    boolean existsDocumentByProjectIdAndName(@Param("projectId") Long projectId, @Param("name") String name);
+
     @Query("SELECT d FROM Document d WHERE d.id = :documentId AND d.project.id = :projectId")
     Optional<Document> findByIdAndProjectId(@Param("documentId") Long documentId, @Param("projectId") Long projectId);
 
     long countByStatus(ProjectStatus status);
 
-    List<Project> findByResponseDeadlineBeforeAndStatusNot(LocalDateTime date, ProjectStatus status);
+    // Rôle d'un utilisateur dans un projet (REVIEWER, INVESTIGATOR ou NONE) en une seule requête EXISTS
+    @Query(value = "SELECT CASE " +
+            "WHEN EXISTS (SELECT 1 FROM project_reviewers pr WHERE pr.project_id = :projectId AND pr.reviewer_id = :userId) THEN 'REVIEWER' " +
+            "WHEN EXISTS (SELECT 1 FROM projects p WHERE p.id = :projectId AND p.principal_investigator_id = :userId) THEN 'INVESTIGATOR' " +
+            "WHEN EXISTS (SELECT 1 FROM project_investigators pi WHERE pi.project_id = :projectId AND pi.investigator_id = :userId) THEN 'INVESTIGATOR' " +
+            "ELSE 'NONE' END", nativeQuery = true)
+    String findMembershipRole(@Param("projectId") Long projectId, @Param("userId") Long userId);
 
+    List<Project> findByResponseDeadlineBeforeAndStatusNot(LocalDateTime date, ProjectStatus status);
 
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE Project p SET p.avisFavorablePath = :newPath WHERE p.avisFavorablePath LIKE :pathSuffix ESCAPE '!'")
+    int relocateAvisFavorablePath(@Param("newPath") String newPath, @Param("pathSuffix") String pathSuffix);
+
+    // Parmi les candidats, ceux encore non rejetés, verrouillés jusqu'à la fin de la transaction :
+    // exactement les lignes que rejectByIds modifiera ensuite
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :ids " +
+            "AND p.status <> com.example.cerbo.entity.enums.ProjectStatus.REJETE")
+    List<Long> lockNotRejectedIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Project p SET p.status = com.example.cerbo.entity.enums.ProjectStatus.REJETE " +
+            "WHERE p.id IN :ids AND p.status <> com.example.cerbo.entity.enums.ProjectStatus.REJETE")
+    int rejectByIds(@Param("ids") Collection<Long> ids);
+}
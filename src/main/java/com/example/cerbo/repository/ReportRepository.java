@@ -2,8 +2,12 @@ package com.example.cerbo.repository;
 
 import com.example.cerbo.entity.Report;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.example.cerbo.entity.enums.ReportStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,21 @@ public interface ReportRepository extends JpaRepository<Report,Long> {
             ReportStatus status
     );
     List<Report> findByProjectIdOrderByCreationDateDesc(Long projectId);
+
+    @Modifying
+    @Query("UPDATE Report r SET r.filePath = :newPath WHERE r.filePath LIKE :pathSuffix ESCAPE '!'")
+    int relocateFilePath(@Param("newPath") String newPath, @Param("pathSuffix") String pathSuffix);
+
+    /**
+     * Projets dont le dernier rapport (par date de création) est envoyé, sans réponse et échu, et qui ne sont
+     * pas encore rejetés. Parcours de l'index (status, responseDeadline), puis (project_id, creationDate)
+     * pour vérifier qu'aucun rapport plus récent n'existe ; à date de création égale, le plus grand id est le dernier.
+     */
+    @Query("SELECT DISTINCT r.project.id FROM Report r " +
+            "WHERE r.status = com.example.cerbo.entity.enums.ReportStatus.SENT " +
+            "AND r.responsed = false AND r.responseDeadline < :now " +
+            "AND r.project.status <> com.example.cerbo.entity.enums.ProjectStatus.REJETE " +
+            "AND NOT EXISTS (SELECT r2.id FROM Report r2 WHERE r2.project = r.project " +
+            "AND (r2.creationDate > r.creationDate OR (r2.creationDate = r.creationDate AND r2.id > r.id)))")
+    List<Long> findProjectIdsWithExpiredLatestReport(@Param("now") LocalDateTime now);
 }
@@ -2,6 +2,7 @@ package com.example.cerbo.repository;
 
 import com.example.cerbo.entity.ResourceDocument;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -41,4 +42,9 @@ public interface ResourceDocumentRepository extends JpaRepository<ResourceDocume
             "ORDER BY rd.creationDate DESC")
     List<ResourceDocument> findPublicWithFilters(@Param("category") String category,
                                                  @Param("searchTerm") String searchTerm);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("UPDATE ResourceDocument d SET d.path = :newPath WHERE d.path <> :fileName AND d.path LIKE :pathSuffix ESCAPE '!'")
+    int relocatePath(@Param("fileName") String fileName, @Param("newPath") String newPath,
+                     @Param("pathSuffix") String pathSuffix);
+}
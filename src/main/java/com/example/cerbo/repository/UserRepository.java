@@ -16,6 +16,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Long findIdByEmail(@Param("email") String email);
+
 
     @Query("SELECT u FROM User u WHERE :roleName MEMBER OF u.roles")
     List<User> findByRolesName(@Param("roleName") String roleName);
@@ -0,0 +1,24 @@
+package com.example.cerbo.repository;
+
+import com.example.cerbo.entity.WsRelayMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface WsRelayMessageRepository extends JpaRepository<WsRelayMessage, Long> {
+
+    @Query("SELECT m FROM WsRelayMessage m WHERE m.createdAt >= :since AND m.originNode <> :node ORDER BY m.createdAt, m.id")
+    List<WsRelayMessage> findRecentFromOtherNodes(@Param("since") LocalDateTime since, @Param("node") String node,
+                                                  Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM WsRelayMessage m WHERE m.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,32 @@
+package com.example.cerbo.scheduler;
+
+import com.example.cerbo.entity.AuditLog;
+import com.example.cerbo.service.MeetingService;
+import com.example.cerbo.service.auditService.AuditLogWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Passage à 'Terminée' des réunions dont la date et l'heure sont dépassées.
+ */
+@Component
+@RequiredArgsConstructor
+public class MeetingStatusScheduler {
+
+    private final MeetingService meetingService;
+    private final AuditLogWriter auditLogWriter;
+
+    @Scheduled(cron = "${meetings.status.cron:0 0 * * * *}")
+    public void closePastMeetings() {
+        List<Long> meetingIds = meetingService.updatePastMeetingsStatus();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long meetingId : meetingIds) {
+            auditLogWriter.enqueue(new AuditLog(null, now, "AUTO_COMPLETE", "MEETING", meetingId, "system", null,
+                    "internal", "updatePastMeetingsStatus", "Date de réunion dépassée"));
+        }
+    }
+}
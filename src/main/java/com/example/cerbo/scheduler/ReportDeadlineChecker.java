@@ -1,40 +1,74 @@
 package com.example.cerbo.scheduler;
 
-import com.example.cerbo.entity.Project;
-import com.example.cerbo.entity.Report;
-import com.example.cerbo.entity.enums.ProjectStatus;
-import com.example.cerbo.entity.enums.ReportStatus;
+import com.example.cerbo.entity.AuditLog;
 import com.example.cerbo.repository.ProjectRepository;
+import com.example.cerbo.repository.ReportRepository;
+import com.example.cerbo.service.auditService.AuditLogWriter;
+import com.example.cerbo.service.searchService.ProjectSearchIndex;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Rejet des projets dont le dernier rapport envoyé est resté sans réponse après l'échéance : une requête
+ * ne retourne que les projets concernés ; par lots, les projets encore non rejetés sont verrouillés puis mis à jour.
+ * Seuls ces projets, effectivement rejetés par cette exécution, sont ré-indexés et tracés dans le journal d'audit.
+ */
 @Component
 @AllArgsConstructor
+@Slf4j
 public class ReportDeadlineChecker {
 
+    private static final int BATCH_SIZE = 1000;
+
     private final ProjectRepository projectRepository;
+    private final ReportRepository reportRepository;
+    private final ProjectSearchIndex projectSearchIndex;
+    private final AuditLogWriter auditLogWriter;
 
     @Scheduled(cron = "0 0 0 * * *")
-    public void rejectProjectDeadline() {
-        List<Project> projects = projectRepository.findAll();
-
-        for (Project project : projects) {
-            Report report = project.getLatestReport();
-            if(report != null && report.getResponseDeadline() != null &&
-                    !report.getResponsed()&&
-                    report.getStatus() == ReportStatus.SENT&&
-                    LocalDateTime.now().isAfter(report.getResponseDeadline())) {
-                if(project.getStatus() != ProjectStatus.REJETE){
-                    project.setStatus(ProjectStatus.REJETE);
-                    projectRepository.save(project);
-                }
+    @Transactional
+    public List<Long> rejectProjectDeadline() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = reportRepository.findProjectIdsWithExpiredLatestReport(now);
+
+        List<Long> projectIds = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += BATCH_SIZE) {
+            List<Long> locked = projectRepository.lockNotRejectedIds(
+                    candidates.subList(from, Math.min(from + BATCH_SIZE, candidates.size())));
+            if (!locked.isEmpty()) {
+                projectRepository.rejectByIds(locked);
+                projectIds.addAll(locked);
             }
         }
 
+        for (Long projectId : projectIds) {
+            projectSearchIndex.indexAfterCommit(projectId);
+        }
+        if (!projectIds.isEmpty()) {
+            // Trace d'audit seulement si les rejets sont effectivement validés
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (Long projectId : projectIds) {
+                        auditLogWriter.enqueue(new AuditLog(null, now, "AUTO_REJECT", "PROJECT", projectId, "system",
+                                null, "internal", "rejectProjectDeadline", "Échéance de réponse au rapport dépassée"));
+                    }
+                }
+            });
+        }
+        if (!projectIds.isEmpty()) {
+            log.info("{} projets rejetés pour échéance de rapport dépassée : {}", projectIds.size(), projectIds);
+        }
+        return projectIds;
     }
 
 }
@@ -0,0 +1,48 @@
+package com.example.cerbo.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.Objects;
+
+/**
+ * Détails d'une authentification par access token : en plus de l'adresse et de la session, l'id utilisateur
+ * lu dans les claims déjà vérifiés, disponible quel que soit le principal (cache ou construit depuis le token).
+ */
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final Long userId;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, Long userId) {
+        super(request);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Id de l'utilisateur authentifié sans accès base, ou null si le token ne le porte pas.
+     */
+    public static Long userIdOf(Authentication authentication) {
+        if (authentication == null) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal && principal.getUserId() != null) {
+            return principal.getUserId();
+        }
+        return authentication.getDetails() instanceof JwtAuthenticationDetails details ? details.getUserId() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && o instanceof JwtAuthenticationDetails other && Objects.equals(userId, other.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Objects.hashCode(userId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.cerbo.security;
+
+import com.example.cerbo.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Principal léger construit uniquement à partir des claims signés du token (userId, email, rôles).
+ * Aucun accès base à la création ; l'entité User n'est chargée que si {@link #getUser()} est appelé.
+ */
+public class JwtUserPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+    private final transient Function<String, User> userLoader;
+    private transient User user;
+
+    public JwtUserPrincipal(Long userId, String email, Collection<String> roles, Function<String, User> userLoader) {
+        this.userId = userId;
+        this.email = email;
+        this.authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.userLoader = userLoader;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Charge (une seule fois) l'utilisateur complet depuis la base.
+     */
+    public synchronized User getUser() {
+        if (user == null && userLoader != null) {
+            user = userLoader.apply(email);
+        }
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
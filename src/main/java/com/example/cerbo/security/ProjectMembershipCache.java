@@ -0,0 +1,81 @@
+package com.example.cerbo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache court (userId, projectId) -> rôle dans le projet, utilisé par ProjectSecurity.
+ * Invalidé par projet lors de l'assignation / du retrait d'évaluateurs.
+ */
+@Component
+public class ProjectMembershipCache {
+
+    public enum ProjectRole {
+        NONE,
+        INVESTIGATOR,
+        REVIEWER
+    }
+
+    private record MembershipKey(Long userId, Long projectId) {}
+
+    private record MembershipEntry(ProjectRole role, long expiresAt) {}
+
+    private final Map<MembershipKey, MembershipEntry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public ProjectMembershipCache(
+            @Value("${security.membership-cache.ttl-ms:60000}") long ttlMillis,
+            @Value("${security.membership-cache.max-size:20000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    public ProjectRole get(Long userId, Long projectId, Supplier<ProjectRole> loader) {
+        MembershipKey key = new MembershipKey(userId, projectId);
+        long now = System.currentTimeMillis();
+
+        MembershipEntry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.role();
+        }
+
+        ProjectRole role = loader.get();
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        if (ttlMillis > 0) {
+            entries.put(key, new MembershipEntry(role, now + ttlMillis));
+        }
+        return role;
+    }
+
+    /**
+     * Invalide les appartenances d'un projet, immédiatement et après le commit de la transaction courante.
+     */
+    public void invalidateProject(Long projectId) {
+        evictProject(projectId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictProject(projectId);
+                }
+            });
+        }
+    }
+
+    private void evictProject(Long projectId) {
+        entries.keySet().removeIf(key -> key.projectId().equals(projectId));
+    }
+}
@@ -1,73 +1,96 @@
 package com.example.cerbo.security;
 
-import com.example.cerbo.entity.Project;
-import com.example.cerbo.entity.User;
 import com.example.cerbo.repository.ProjectRepository;
 import com.example.cerbo.repository.UserRepository;
+import com.example.cerbo.security.ProjectMembershipCache.ProjectRole;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ProjectSecurity {
 
+    // Mémoïsation des vérifications pour le reste de la requête HTTP
+    private static final String REQUEST_MEMO_ATTRIBUTE = ProjectSecurity.class.getName() + ".memo";
+
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProjectMembershipCache membershipCache;
 
     public boolean isProjectMember(Long projectId, Authentication authentication) {
-        log.debug("Vérification accès pour projet {} - utilisateur {}",
-                projectId, authentication.getName());
         if (authentication == null || !authentication.isAuthenticated()) {
             return false;
         }
+        log.debug("Vérification accès pour projet {} - utilisateur {}",
+                projectId, authentication.getName());
 
-        User user = userRepository.findByEmail(authentication.getName());
-        if (user == null) {
-            return false;
+        // Admin peut tout voir (si le projet existe)
+        if (hasRole(authentication, "ADMIN")) {
+            return memoize("exists:" + projectId, key -> projectRepository.existsById(projectId));
         }
 
-        Project project = projectRepository.findById(projectId).orElse(null);
-        if (project == null) {
+        // Investigateur principal, co-investigateur ou évaluateur assigné
+        return getProjectRole(projectId, authentication) != ProjectRole.NONE;
+    }
+
+    public boolean isProjectReviewer(Long projectId, Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
             return false;
         }
 
-        // Admin peut tout voir
-        if (user.getRoles().contains("ADMIN")) {
-            return true;
-        }
+        return getProjectRole(projectId, authentication) == ProjectRole.REVIEWER;
+    }
 
-        // Investigateur principal ou co-investigateur
-        if (project.getPrincipalInvestigator().equals(user) ||
-                project.getInvestigators().contains(user)) {
-            return true;
+    private ProjectRole getProjectRole(Long projectId, Authentication authentication) {
+        Long userId = resolveUserId(authentication);
+        if (userId == null || projectId == null) {
+            return ProjectRole.NONE;
         }
 
-        // Evaluateur assigné
-        if (project.getReviewers().contains(user)) {
-            return true;
+        return memoize("role:" + userId + ":" + projectId,
+                key -> membershipCache.get(userId, projectId,
+                        () -> ProjectRole.valueOf(projectRepository.findMembershipRole(projectId, userId))));
+    }
+
+    private Long resolveUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal && principal.getUserId() != null) {
+            return principal.getUserId();
         }
+        String email = authentication.getName();
+        return memoize("user:" + email, key -> userRepository.findIdByEmail(email));
+    }
 
-        return false;
+    private boolean hasRole(Authentication authentication, String role) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals(role) || a.getAuthority().equals("ROLE_" + role));
     }
 
-    public boolean isProjectReviewer(Long projectId, Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return false;
+    @SuppressWarnings("unchecked")
+    private <T> T memoize(String key, Function<String, T> loader) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return loader.apply(key);
         }
 
-        User user = userRepository.findByEmail(authentication.getName());
-        if (user == null) {
-            return false;
+        Map<String, Object> memo = (Map<String, Object>) attributes.getAttribute(REQUEST_MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<>();
+            attributes.setAttribute(REQUEST_MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
         }
-
-        Project project = projectRepository.findById(projectId).orElse(null);
-        if (project == null) {
-            return false;
+        if (memo.containsKey(key)) {
+            return (T) memo.get(key);
         }
-
-        return project.getReviewers().contains(user);
+        T value = loader.apply(key);
+        memo.put(key, value);
+        return value;
     }
-}
\ No newline at end of file
+}
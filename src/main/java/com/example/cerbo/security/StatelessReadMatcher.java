@@ -0,0 +1,37 @@
+package com.example.cerbo.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Mode opt-in : pour les GET de ces chemins (protégés uniquement par rôle), le JwtTokenFilter
+ * construit le SecurityContext à partir des seuls claims signés, sans accès base.
+ * Attention : une désactivation de compte n'y prend effet qu'à l'expiration (ou révocation) du token.
+ */
+@Component
+public class StatelessReadMatcher {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final boolean enabled;
+    private final List<String> patterns;
+
+    public StatelessReadMatcher(
+            @Value("${security.stateless-read.enabled:false}") boolean enabled,
+            @Value("${security.stateless-read.paths:/api/articles/**,/api/events/**,/api/trainings/**,/api/resource-documents/**,/api/meeting/**}")
+            List<String> patterns) {
+        this.enabled = enabled;
+        this.patterns = patterns;
+    }
+
+    public boolean matches(HttpServletRequest request) {
+        if (!enabled || !"GET".equalsIgnoreCase(request.getMethod())) {
+            return false;
+        }
+        String path = request.getServletPath();
+        return patterns.stream().anyMatch(pattern -> pathMatcher.match(pattern.trim(), path));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.cerbo.security;
+
+import com.example.cerbo.dto.JwtClaims;
+import com.example.cerbo.dto.JwtTokenUtil;
+import com.example.cerbo.service.blacklistService.BlacklistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Authentifie la session STOMP au CONNECT à partir de l'en-tête natif {@code Authorization: Bearer <jwt>}
+ * (SockJS ne permet pas d'en-tête sur la poignée de main HTTP). Le nom du principal est l'email, ce qui
+ * alimente /user/queue/notifications. Un utilisateur ne peut s'abonner qu'à son propre topic de notifications,
+ * et une session non authentifiée à aucun.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String NOTIFICATION_TOPIC = "/topic/notifications/";
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final BlacklistService blacklistService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            String header = accessor.getFirstNativeHeader("Authorization");
+            if (header != null && header.startsWith("Bearer ")) {
+                String token = header.substring(7);
+                JwtClaims claims = blacklistService.isBlacklisted(token) ? null : jwtTokenUtil.parseAccessToken(token);
+                if (claims == null) {
+                    throw new MessageDeliveryException("Token expiré ou invalide");
+                }
+                JwtUserPrincipal principal = new JwtUserPrincipal(claims.getUserId(), claims.getSubject(),
+                        claims.getRoles(), null);
+                accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+            }
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            Long userId = userId(accessor.getUser());
+            // Sans principal authentifié (CONNECT sans jeton), aucun topic de notifications n'est accessible
+            if (destination != null && destination.startsWith(NOTIFICATION_TOPIC)
+                    && (userId == null || !destination.equals(NOTIFICATION_TOPIC + userId))) {
+                throw new MessageDeliveryException("Abonnement refusé : " + destination);
+            }
+        }
+        return message;
+    }
+
+    private static Long userId(Principal user) {
+        if (user instanceof UsernamePasswordAuthenticationToken token
+                && token.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal.getUserId();
+        }
+        return null;
+    }
+}
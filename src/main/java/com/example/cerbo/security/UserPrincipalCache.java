@@ -0,0 +1,117 @@
+package com.example.cerbo.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cache borné (TTL + taille max) des UserDetails chargés par le JwtTokenFilter.
+ * La clé est (email, date d'émission du token) : un nouveau login produit donc une nouvelle entrée.
+ * Les changements de rôle / activation / email / suppression doivent appeler {@link #invalidate(String)}.
+ * Même TTL pour toutes les entrées : l'ordre d'insertion est l'ordre d'expiration, les entrées expirées sont en tête
+ * et la taille est bornée en retirant la plus ancienne, sans parcours de tout le cache.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+
+    private record CacheKey(String email, long issuedAt) {}
+
+    private record CacheEntry(UserDetails userDetails, long expiresAt) {}
+
+    private final Map<CacheKey, CacheEntry> entries;
+    private final long ttlMillis;
+
+    public UserPrincipalCache(
+            @Value("${security.principal-cache.ttl-ms:300000}") long ttlMillis,
+            @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Retourne le principal en cache ou le charge via {@code loader}.
+     * Les exceptions du loader (utilisateur inconnu, non validé) ne sont jamais mises en cache.
+     */
+    public UserDetails get(String email, Date issuedAt, Function<String, UserDetails> loader) {
+        if (ttlMillis <= 0 || issuedAt == null) {
+            return loader.apply(email);
+        }
+
+        CacheKey key = new CacheKey(email, issuedAt.getTime());
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > now) {
+                return entry.userDetails();
+            }
+        }
+
+        UserDetails userDetails = loader.apply(email);
+        synchronized (entries) {
+            // Heure relue sous le verrou : les expirations restent croissantes dans l'ordre d'insertion
+            long loadedAt = System.currentTimeMillis();
+            evictExpired(loadedAt);
+            // Retirer avant d'insérer : une clé rechargée passe en fin d'ordre d'expiration
+            entries.remove(key);
+            entries.put(key, new CacheEntry(userDetails, loadedAt + ttlMillis));
+        }
+        return userDetails;
+    }
+
+    /**
+     * Invalide toutes les entrées d'un utilisateur, immédiatement et de nouveau après le commit
+     * de la transaction courante (pour ne pas garder une version lue avant le commit).
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        evictEmail(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEmail(email);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private void evictEmail(String email) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.email().equals(email));
+        }
+        log.debug("Principal cache invalidé pour {}", email);
+    }
+
+    // Appelé sous le verrou ; s'arrête à la première entrée encore valide
+    private void evictExpired(long now) {
+        Iterator<CacheEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt() <= now) {
+            iterator.remove();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.cerbo.entity.User;
 import com.example.cerbo.entity.enums.RoleType;
 import com.example.cerbo.repository.PendingUserRepository;
 import com.example.cerbo.repository.UserRepository;
+import com.example.cerbo.security.UserPrincipalCache;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +36,9 @@ public class AdminUserService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private JavaMailSender mailSender;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
     /**
      * Récupère tous les utilisateurs
      */
@@ -230,6 +234,7 @@ public class AdminUserService {
             Set<String> roles = new HashSet<>();
             roles.add(roleType.name());
             user.setRoles(roles);
+            userPrincipalCache.invalidate(user.getEmail());
 
             return userRepository.save(user);
         } catch (IllegalArgumentException e) {
@@ -247,6 +252,7 @@ public class AdminUserService {
                 .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé avec l'ID: " + userId));
 
         user.setValidated(activated);
+        userPrincipalCache.invalidate(user.getEmail());
         return userRepository.save(user);
     }
 
@@ -256,11 +262,11 @@ public class AdminUserService {
     @Loggable(actionType = "DELETE", entityType = "USER")
     @Transactional
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new IllegalArgumentException("Utilisateur non trouvé avec l'ID: " + userId);
-        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Utilisateur non trouvé avec l'ID: " + userId));
 
-        userRepository.deleteById(userId);
+        userPrincipalCache.invalidate(user.getEmail());
+        userRepository.delete(user);
     }
     /**
      * Modifie l'email d'un utilisateur existant
@@ -277,6 +283,7 @@ public class AdminUserService {
             throw new IllegalArgumentException("Un utilisateur avec cet email existe déjà");
         }
 
+        userPrincipalCache.invalidate(user.getEmail());
         user.setEmail(newEmail);
         return userRepository.save(user);
     }
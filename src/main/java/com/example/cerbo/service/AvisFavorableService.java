@@ -2,6 +2,8 @@ package com.example.cerbo.service;
 
 import com.example.cerbo.entity.Project;
 import com.example.cerbo.repository.UserRepository;
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
 import com.itextpdf.forms.PdfAcroForm;
 import com.itextpdf.forms.fields.PdfFormField;
 import com.itextpdf.kernel.pdf.PdfDocument;
@@ -26,21 +28,18 @@ public class AvisFavorableService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private StorageResolver storageResolver;
     public Path generateAvisFavorable(Project project) throws Exception {
         String fileName = "avis_favorable_" + project.getReference() + ".pdf";
-        Path folder = Path.of("uploads/avis_favorable");
 
         // Récupérer un admin (le premier trouvé)
         User admin = userRepository.findByRolesContaining("ADMIN").stream()
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException("Aucun administrateur trouvé"));
 
-        if (!Files.exists(folder)) {
-            Files.createDirectories(folder);
-        }
-
         Path templatePath = Path.of("src/main/resources/template/avis_favorable_templt.pdf");
-        Path outputPath = folder.resolve(fileName);
+        Path outputPath = storageResolver.resolveForWrite(StorageArea.AVIS_FAVORABLE, fileName);
 
         try (PdfReader reader = new PdfReader(templatePath.toFile());
              PdfWriter writer = new PdfWriter(outputPath.toFile());
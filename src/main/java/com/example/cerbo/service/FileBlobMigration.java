@@ -0,0 +1,134 @@
+package com.example.cerbo.service;
+
+import com.example.cerbo.entity.FileBlob;
+import com.example.cerbo.repository.FileBlobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Migration unique du répertoire uploads/ vers le stockage par contenu : chaque fichier est haché,
+ * les références en base (documents, photos, images d'événements et d'articles) sont réécrites vers
+ * le blob &lt;sha256&gt;&lt;ext&gt; et les doublons supprimés. Relançable sans risque ; à activer une fois avec
+ * storage.content-addressed.migrate-on-startup=true. Les fichiers sans aucune référence sont laissés en place.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.content-addressed.migrate-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class FileBlobMigration implements ApplicationRunner {
+
+    private final FileStorageService fileStorageService;
+    private final FileBlobRepository fileBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path root = fileStorageService.getStorageLocation();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(root)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .toList();
+        }
+
+        int migrated = 0;
+        long reclaimed = 0;
+        for (Path file : files) {
+            try {
+                long freed = migrate(file);
+                if (freed >= 0) {
+                    migrated++;
+                    reclaimed += freed;
+                }
+            } catch (Exception e) {
+                log.error("Migration du fichier {} impossible", file.getFileName(), e);
+            }
+        }
+        log.info("Migration vers le stockage par contenu : {} fichiers examinés, {} migrés, {} octets récupérés",
+                files.size(), migrated, reclaimed);
+    }
+
+    /**
+     * Retourne le nombre d'octets libérés (0 si le fichier devient le blob), ou -1 s'il n'a pas été migré.
+     */
+    private long migrate(Path file) throws Exception {
+        String oldName = file.getFileName().toString();
+        if (fileBlobRepository.findByFileName(oldName).isPresent()) {
+            return -1;
+        }
+
+        String sha256 = sha256(file);
+        int dot = oldName.lastIndexOf('.');
+        String extension = dot >= 0 ? oldName.substring(dot).toLowerCase(Locale.ROOT) : "";
+
+        // Réécriture des références et compteur dans la même transaction
+        String blobName = transactionTemplate.execute(status -> {
+            FileBlob blob = fileBlobRepository.findBySha256(sha256)
+                    .orElseGet(() -> fileBlobRepository.save(FileBlob.builder()
+                            .sha256(sha256)
+                            .fileName(sha256 + extension)
+                            .size(file.toFile().length())
+                            .refCount(0)
+                            .createdAt(LocalDateTime.now())
+                            .build()));
+
+            String newName = blob.getFileName();
+            String suffix = "%/" + oldName.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            int references = fileBlobRepository.rewriteDocumentPaths(oldName, newName, suffix)
+                    + fileBlobRepository.rewriteUserPhotos(oldName, newName)
+                    + fileBlobRepository.rewriteEventFiles(oldName, newName)
+                    + fileBlobRepository.rewriteArticleFiles(oldName, newName);
+            fileBlobRepository.rewriteDocumentNames(oldName, newName);
+
+            if (references == 0 && blob.getRefCount() == 0) {
+                // Fichier orphelin : on n'en fait pas un blob
+                status.setRollbackOnly();
+                return null;
+            }
+            fileBlobRepository.addReferences(blob.getId(), references);
+            return newName;
+        });
+
+        if (blobName == null) {
+            return -1;
+        }
+
+        // Après commit : le premier fichier devient le blob, les suivants sont des doublons
+        Path blobPath = fileStorageService.loadFile(blobName);
+        if (!Files.exists(blobPath)) {
+            blobPath = fileStorageService.pathForWrite(blobName);
+        }
+        if (!Files.exists(blobPath)) {
+            Files.move(file, blobPath);
+            return 0;
+        }
+        long size = Files.size(file);
+        Files.delete(file);
+        return size;
+    }
+
+    private static String sha256(Path file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.cerbo.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Écriture parallèle des pièces jointes d'une soumission : chaque part est recopiée en flux vers son
+ * emplacement final (fichier temporaire puis renommage atomique) sur un pool d'E/S borné,
+ * avec taille et SHA-256 calculés au passage. En cas d'échec, les parts restantes sont annulées et tous les
+ * fichiers du lot supprimés, y compris ceux d'une part qui termine après l'abandon.
+ */
+@Service
+@Slf4j
+public class FileIngestService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public record StoredPart(String partName, String fileName, long size, String sha256, long elapsedMillis) {}
+
+    public FileIngestService(
+            FileStorageService fileStorageService,
+            @Value("${upload.ingest.threads:4}") int threads,
+            @Value("${upload.ingest.queue-capacity:64}") int queueCapacity,
+            @Value("${upload.ingest.timeout-ms:120000}") long timeoutMillis) {
+        this.fileStorageService = fileStorageService;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger counter = new AtomicInteger();
+        // File pleine : le thread appelant écrit lui-même la part (pas de rejet, pas de file illimitée)
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-ingest-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Stocke toutes les parts non vides (clé = nom de la part) et retourne leurs métadonnées dans le même ordre.
+     * Si une part échoue, dépasse le délai ou si l'attente est interrompue, les autres sont annulées et les
+     * fichiers écrits supprimés.
+     */
+    public List<StoredPart> ingest(Map<String, MultipartFile> parts) throws IOException {
+        long start = System.nanoTime();
+        Batch batch = new Batch();
+        Map<String, Future<StoredPart>> futures = new LinkedHashMap<>();
+        parts.forEach((name, file) -> {
+            if (file != null && !file.isEmpty()) {
+                futures.put(name, executor.submit(() -> store(name, file, batch)));
+            }
+        });
+
+        List<StoredPart> stored = new ArrayList<>();
+        IOException failure = null;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        for (Map.Entry<String, Future<StoredPart>> entry : futures.entrySet()) {
+            try {
+                stored.add(entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                failure = cause instanceof IOException io ? io : new IOException("Échec du stockage de " + entry.getKey(), cause);
+            } catch (TimeoutException e) {
+                failure = new IOException("Délai dépassé pour le stockage de " + entry.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IOException("Stockage interrompu", e);
+            }
+            if (failure != null) {
+                break;
+            }
+        }
+
+        if (failure != null) {
+            // Abandon d'abord : une part qui termine ensuite supprime elle-même son fichier
+            List<StoredPart> written = batch.abort();
+            futures.values().forEach(future -> future.cancel(true));
+            discard(written);
+            throw failure;
+        }
+
+        if (log.isInfoEnabled() && !stored.isEmpty()) {
+            StringBuilder timings = new StringBuilder();
+            for (StoredPart part : stored) {
+                timings.append(' ').append(part.partName()).append('=').append(part.elapsedMillis()).append("ms/").append(part.size()).append('B');
+            }
+            log.info("Soumission : {} fichiers stockés en {} ms ->{}", stored.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), timings);
+        }
+        return stored;
+    }
+
+    /**
+     * Supprime les fichiers d'un lot (échec de l'insertion en base après l'écriture des fichiers).
+     */
+    public void discard(Collection<StoredPart> stored) {
+        for (StoredPart part : stored) {
+            try {
+                fileStorageService.deleteFile(part.fileName());
+            } catch (RuntimeException e) {
+                log.warn("Impossible de supprimer {} après échec de la soumission", part.fileName(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private StoredPart store(String partName, MultipartFile file, Batch batch) throws IOException {
+        long start = System.nanoTime();
+        String originalName = StringUtils.cleanPath(Objects.requireNonNullElse(file.getOriginalFilename(), ""));
+        int dot = originalName.lastIndexOf('.');
+        String extension = dot >= 0 ? originalName.substring(dot) : "";
+        String fileName = UUID.randomUUID() + extension;
+
+        Path target = fileStorageService.pathForWrite(fileName);
+        Path temp = target.resolveSibling("." + fileName + ".part");
+        MessageDigest digest = sha256();
+        long size = 0;
+
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+             OutputStream out = Files.newOutputStream(temp)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (batch.isAborted()) {
+                    throw new IOException("Stockage annulé: " + partName);
+                }
+                out.write(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        try {
+            if (batch.isAborted()) {
+                throw new IOException("Stockage annulé: " + partName);
+            }
+            if (fileStorageService.isContentAddressed()) {
+                fileName = fileStorageService.adoptBlob(temp, sha256, extension, size);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        StoredPart part = new StoredPart(partName, fileName, size, sha256,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (!batch.register(part)) {
+            discard(List.of(part));
+            throw new IOException("Stockage annulé: " + partName);
+        }
+        return part;
+    }
+
+    /**
+     * Parts écrites d'un lot ; l'enregistrement et l'abandon sont exclusifs, aucun fichier ne peut donc
+     * être écrit sans être soit retourné au nettoyage, soit supprimé par sa propre tâche.
+     */
+    private static final class Batch {
+
+        private final List<StoredPart> written = new ArrayList<>();
+        private volatile boolean aborted;
+
+        boolean isAborted() {
+            return aborted;
+        }
+
+        synchronized boolean register(StoredPart part) {
+            if (aborted) {
+                return false;
+            }
+            written.add(part);
+            return true;
+        }
+
+        synchronized List<StoredPart> abort() {
+            aborted = true;
+            return new ArrayList<>(written);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
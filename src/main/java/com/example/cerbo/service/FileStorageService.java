@@ -1,15 +1,37 @@
 package com.example.cerbo.service;
 
 import com.example.cerbo.entity.Document;
+import com.example.cerbo.entity.FileBlob;
+import com.example.cerbo.exception.ResourceNotFoundException;
+import com.example.cerbo.repository.FileBlobRepository;
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 
@@ -17,13 +39,33 @@ import java.net.MalformedURLException;
 
 
 @Service
+@Slf4j
 public class FileStorageService {
 
+    private static final int LOCK_STRIPES = 64;
+
     private final Path fileStorageLocation;
+    private final FileBlobRepository fileBlobRepository;
+    private final StorageResolver storageResolver;
+    private final boolean contentAddressed;
+    private final TransactionTemplate releaseTransaction;
+    // Évite seulement la course locale entre deux envois identiques ; entre nœuds, le compteur en base et la
+    // contrainte d'unicité font foi, et aucun fichier de blob n'est supprimé hors du ramasse-miettes
+    private final Object[] blobLocks = new Object[LOCK_STRIPES];
 
-    public FileStorageService() {
-        this.fileStorageLocation = Paths.get("uploads")
-                .toAbsolutePath().normalize();
+    public FileStorageService(FileBlobRepository fileBlobRepository,
+                              StorageResolver storageResolver,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${storage.content-addressed.enabled:false}") boolean contentAddressed) {
+        this.fileBlobRepository = fileBlobRepository;
+        this.contentAddressed = contentAddressed;
+        this.releaseTransaction = new TransactionTemplate(transactionManager);
+        this.releaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            blobLocks[i] = new Object();
+        }
+        this.storageResolver = storageResolver;
+        this.fileStorageLocation = storageResolver.root(StorageArea.UPLOADS);
 
         try {
             Files.createDirectories(this.fileStorageLocation);
@@ -33,13 +75,25 @@ public class FileStorageService {
         }
     }
 
+    public Path getStorageLocation() {
+        return fileStorageLocation;
+    }
+
+    public boolean isContentAddressed() {
+        return contentAddressed;
+    }
+
     public String storeFile(MultipartFile file) {
+        if (contentAddressed) {
+            return storeBlob(file);
+        }
         try {
-            String fileName = StringUtils.cleanPath(file.getOriginalFilename());
-            String extension = fileName.substring(fileName.lastIndexOf('.'));
+            String fileName = StringUtils.cleanPath(Objects.requireNonNullElse(file.getOriginalFilename(), ""));
+            int dot = fileName.lastIndexOf('.');
+            String extension = dot >= 0 ? fileName.substring(dot) : "";
             String uniqueFileName = UUID.randomUUID() + extension;
 
-            Path targetLocation = this.fileStorageLocation.resolve(uniqueFileName);
+            Path targetLocation = storageResolver.resolveForWrite(StorageArea.UPLOADS, uniqueFileName);
             Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
 
             return uniqueFileName; // Retournez seulement le nom du fichier
@@ -48,33 +102,28 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Remplace le contenu d'un document : le nouveau contenu est toujours stocké sous un nouveau nom (jamais
+     * réécrit en place), l'ancien n'est libéré qu'après le commit. Retourne le nouveau nom.
+     */
     public String updateFile(MultipartFile file, Document document) {
-        try {
-            String oldFileName = document.getName(); // assure-toi que Document a bien cette méthode
-
-            if (oldFileName != null && !oldFileName.isEmpty()) {
+        String oldFileName = document.getName();
+        String fileName = storeFile(file);
+        if (oldFileName != null && !oldFileName.isEmpty()) {
+            if (contentAddressed) {
+                // Le blob peut être partagé : une référence en moins, dans la transaction de l'appelant
                 deleteFile(oldFileName);
+            } else {
+                deleteFileAfterCommit(oldFileName);
             }
-
-            String fileName = oldFileName != null && !oldFileName.isEmpty()
-                    ? oldFileName
-                    : StringUtils.cleanPath(file.getOriginalFilename());
-
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            return fileName;
-
-        } catch (IOException e) {
-            throw new RuntimeException("Erreur lors de la mise à jour du fichier: " + e.getMessage(), e);
         }
+        return fileName;
     }
 
 
     public Resource loadFileAsResource(String filename) {
         try {
-            Path filePath = this.fileStorageLocation.resolve(filename).normalize();
+            Path filePath = storageResolver.resolve(StorageArea.UPLOADS, filename);
             Resource resource = new UrlResource(filePath.toUri());
             if (resource.exists()) {
                 return resource;
@@ -87,22 +136,155 @@ public class FileStorageService {
     }
 
     public Path loadFile(String filename) {
-        return fileStorageLocation.resolve(filename);
+        return storageResolver.resolve(StorageArea.UPLOADS, filename);
+    }
+
+    public Path pathForWrite(String filename) throws IOException {
+        return storageResolver.resolveForWrite(StorageArea.UPLOADS, filename);
+    }
+
+    /**
+     * Fichier à diffuser tel quel (lecture par FileChannel, par plages si besoin) sans le charger en mémoire.
+     */
+    public FileSystemResource loadFileForStreaming(String filename) {
+        Path filePath = storageResolver.resolve(StorageArea.UPLOADS, filename);
+        if (!filePath.startsWith(this.fileStorageLocation) || !Files.isRegularFile(filePath)) {
+            throw new ResourceNotFoundException("File not found " + filename);
+        }
+        return new FileSystemResource(filePath);
     }
+
     public byte[] loadFileAsBytes(String filename) throws IOException {
         Path filePath = loadFile(filename);
         return Files.readAllBytes(filePath);
     }
 
+    /**
+     * Supprime un fichier. Pour un blob partagé, ne fait que retirer une référence (dans la transaction de
+     * l'appelant) : le fichier devenu inutile est laissé au ramasse-miettes, jamais effacé ici, pour qu'un
+     * rollback ou un autre nœud qui ré-adopte le même contenu ne se retrouve pas avec une ligne sans fichier.
+     * Un fichier ordinaire n'est effacé qu'après le commit de la transaction en cours.
+     */
     public boolean deleteFile(String filename) {
+        Optional<FileBlob> blob = fileBlobRepository.findByFileName(StorageResolver.fileName(filename));
+        if (blob.isPresent()) {
+            return fileBlobRepository.releaseReference(blob.get().getId()) == 1;
+        }
         try {
-            Path filePath = this.fileStorageLocation.resolve(filename).normalize();
-            return Files.deleteIfExists(filePath);
+            Path filePath = storageResolver.resolve(StorageArea.UPLOADS, filename);
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return Files.deleteIfExists(filePath);
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        Files.deleteIfExists(filePath);
+                    } catch (IOException e) {
+                        log.warn("Impossible de supprimer le fichier {} : laissé au ramasse-miettes", filename, e);
+                    }
+                }
+            });
+            return Files.exists(filePath);
         } catch (IOException e) {
             throw new RuntimeException("Impossible de supprimer le fichier: " + filename, e);
         }
     }
 
+    /**
+     * Libère le fichier d'une ligne supprimée par cascade (document d'un projet supprimé...) une fois la suppression
+     * validée, dans une transaction à part : l'échec de la libération ne fait que conserver le fichier.
+     */
+    public void deleteFileAfterCommit(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteFile(filename);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    releaseTransaction.executeWithoutResult(status -> deleteFile(filename));
+                } catch (RuntimeException e) {
+                    log.warn("Référence au fichier {} non libérée : laissé au ramasse-miettes", filename, e);
+                }
+            }
+        });
+    }
 
+    /**
+     * Adopte un fichier déjà écrit (dans le répertoire de stockage) dont on connaît le SHA-256 :
+     * s'il existe déjà un blob identique, le fichier est supprimé et une référence ajoutée, sinon il devient le blob.
+     * Une ligne sans référence est réutilisée telle quelle ; si son fichier a disparu (mis en quarantaine), le fichier
+     * écrit prend sa place. Retourne le nom du blob.
+     */
+    public String adoptBlob(Path writtenFile, String sha256, String extension, long size) throws IOException {
+        synchronized (blobLock(sha256)) {
+            Optional<FileBlob> existing = fileBlobRepository.findBySha256(sha256);
+            if (existing.isPresent() && fileBlobRepository.addReferences(existing.get().getId(), 1) == 1) {
+                Path target = storageResolver.resolve(StorageArea.UPLOADS, existing.get().getFileName());
+                if (Files.exists(target)) {
+                    // Rajeunit le fichier : le ramasse-miettes ne touche pas aux fichiers récents
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                    Files.deleteIfExists(writtenFile);
+                } else {
+                    Files.move(writtenFile, pathForWrite(existing.get().getFileName()), StandardCopyOption.ATOMIC_MOVE);
+                }
+                return existing.get().getFileName();
+            }
 
-}
\ No newline at end of file
+            // Un fichier de même contenu peut rester d'une ligne disparue : on le remplace par une copie identique
+            String fileName = sha256 + extension.toLowerCase(Locale.ROOT);
+            Files.move(writtenFile, pathForWrite(fileName),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                fileBlobRepository.save(FileBlob.builder()
+                        .sha256(sha256)
+                        .fileName(fileName)
+                        .size(size)
+                        .refCount(1)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Inséré entre-temps par un autre nœud
+                FileBlob other = fileBlobRepository.findBySha256(sha256).orElseThrow(() -> e);
+                fileBlobRepository.addReferences(other.getId(), 1);
+                return other.getFileName();
+            }
+            return fileName;
+        }
+    }
+
+    private String storeBlob(MultipartFile file) {
+        Path temp = null;
+        try {
+            String originalName = StringUtils.cleanPath(Objects.requireNonNullElse(file.getOriginalFilename(), ""));
+            int dot = originalName.lastIndexOf('.');
+            String extension = dot >= 0 ? originalName.substring(dot) : "";
+
+            temp = Files.createTempFile(fileStorageLocation, ".blob-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return adoptBlob(temp, HexFormat.of().formatHex(digest.digest()), extension, size);
+        } catch (Exception e) {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // le ramasse-miettes s'en chargera
+                }
+            }
+            throw new RuntimeException("Échec du stockage: " + e.getMessage());
+        }
+    }
+
+    private Object blobLock(String sha256) {
+        return blobLocks[Math.floorMod(sha256.hashCode(), LOCK_STRIPES)];
+    }
+}
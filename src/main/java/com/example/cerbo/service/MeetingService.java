@@ -18,6 +18,9 @@ import com.example.cerbo.annotation.Loggable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -62,6 +65,9 @@ import java.util.Locale;
 @Slf4j
 public class MeetingService {
 
+    // Taille des listes IN des mises à jour de statut en masse
+    private static final int STATUS_UPDATE_BATCH_SIZE = 1000;
+
     // Injection des repositories nécessaires
     private final MeetingRepository meetingRepository;
     private final MeetingProjectRepository meetingProjectRepository;
@@ -106,16 +112,10 @@ public class MeetingService {
         try {
             log.debug("Récupération des réunions pour l'année {} et le mois {}", year, month);
 
-            List<Meeting> allMeetings = meetingRepository.findByYear(year);
-            List<Meeting> filteredMeetings = allMeetings.stream()
-                    .filter(meeting -> {
-                        if (meeting.getDate() == null) {
-                            log.warn("Réunion ID {} n'a pas de date définie", meeting.getId());
-                            return false;
-                        }
-                        return meeting.getDate().getMonthValue() == month;
-                    })
-                    .collect(Collectors.toList());
+            // Filtre fait en base sur l'intervalle de dates du mois (index meeting(date))
+            LocalDate firstDay = LocalDate.of(year, month, 1);
+            List<Meeting> filteredMeetings = meetingRepository
+                    .findByYearAndDateGreaterThanEqualAndDateLessThanOrderByDateAscTimeAsc(year, firstDay, firstDay.plusMonths(1));
 
             log.debug("Trouvé {} réunions pour l'année {} et le mois {}", filteredMeetings.size(), year, month);
             return filteredMeetings;
@@ -1016,23 +1016,24 @@ public class MeetingService {
 
     /**
      * Vérifie et met à jour automatiquement les statuts des réunions passées
-     * Tâche planifiée quotidienne
+     * Tâche planifiée (MeetingStatusScheduler) : une requête indexée sur meeting(date) pour les identifiants,
+     * puis, par lots, verrouillage des réunions encore non terminées et UPDATE de celles-ci ; retourne exactement
+     * les réunions passées à 'Terminée'.
      */
     @Transactional
-    public int updatePastMeetingsStatus() {
+    public List<Long> updatePastMeetingsStatus() {
         try {
             log.info("Mise à jour automatique des statuts des réunions passées");
 
-            List<Meeting> allMeetings = meetingRepository.findAll();
+            List<Long> candidates = meetingRepository.findPastUnfinishedIds(LocalDate.now(), LocalTime.now());
+            List<Long> meetingIds = new ArrayList<>();
             int updateCount = 0;
-
-            for (Meeting meeting : allMeetings) {
-                if (isPastMeeting(meeting) && !"Terminée".equals(meeting.getStatus())) {
-                    meeting.setStatus("Terminée");
-                    meetingRepository.save(meeting);
-                    updateCount++;
-                    log.debug("Statut mis à jour vers 'Terminée' pour la réunion ID: {} ({})",
-                            meeting.getId(), meeting.getDate());
+            for (int from = 0; from < candidates.size(); from += STATUS_UPDATE_BATCH_SIZE) {
+                List<Long> locked = meetingRepository.lockUnfinishedIds(
+                        candidates.subList(from, Math.min(from + STATUS_UPDATE_BATCH_SIZE, candidates.size())));
+                if (!locked.isEmpty()) {
+                    updateCount += meetingRepository.markFinished(locked);
+                    meetingIds.addAll(locked);
                 }
             }
 
@@ -1042,52 +1043,49 @@ public class MeetingService {
                 log.debug("Aucune réunion passée à mettre à jour");
             }
 
-            return updateCount;
+            return meetingIds;
         } catch (Exception e) {
             log.error("Erreur lors de la mise à jour des statuts des réunions passées: {}", e.getMessage(), e);
-            return 0;
+            return List.of();
         }
     }
 
     /**
-     * Recherche des réunions selon des critères multiples
+     * Recherche des réunions selon des critères multiples, paginée
+     *
+     * Tous les filtres sont traduits en SQL : statut par égalité, dates en intervalle sur l'index meeting(date),
+     * texte sur le mois et le statut. Seule la page demandée est chargée.
      */
     @Transactional(readOnly = true)
-    public List<Meeting> searchMeetings(String status, LocalDate fromDate, LocalDate toDate, String searchTerm) {
+    public Page<Meeting> searchMeetings(String status, LocalDate fromDate, LocalDate toDate, String searchTerm,
+                                        Pageable pageable) {
         try {
             log.debug("Recherche de réunions - Statut: {}, Du: {}, Au: {}, Terme: {}",
                     status, fromDate, toDate, searchTerm);
 
-            // Pour l'instant, implémentation basique - peut être étendue avec Specifications
-            List<Meeting> allMeetings = meetingRepository.findAll();
-
-            return allMeetings.stream()
-                    .filter(meeting -> {
-                        // Filtre par statut
-                        if (status != null && !status.isEmpty() && !status.equals(meeting.getStatus())) {
-                            return false;
-                        }
-
-                        // Filtre par date de début
-                        if (fromDate != null && meeting.getDate().isBefore(fromDate)) {
-                            return false;
-                        }
-
-                        // Filtre par date de fin
-                        if (toDate != null && meeting.getDate().isAfter(toDate)) {
-                            return false;
-                        }
-
-                        // Recherche textuelle
-                        if (searchTerm != null && !searchTerm.isEmpty()) {
-                            String term = searchTerm.toLowerCase();
-                            return (meeting.getMonth() != null && meeting.getMonth().toLowerCase().contains(term)) ||
-                                    (meeting.getStatus() != null && meeting.getStatus().toLowerCase().contains(term));
-                        }
-
-                        return true;
-                    })
-                    .collect(Collectors.toList());
+            Specification<Meeting> spec = Specification.where(null);
+
+            if (status != null && !status.isEmpty()) {
+                spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
+            }
+
+            if (fromDate != null) {
+                spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), fromDate));
+            }
+
+            if (toDate != null) {
+                spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), toDate));
+            }
+
+            if (searchTerm != null && !searchTerm.isEmpty()) {
+                String likePattern = "%" + searchTerm.toLowerCase() + "%";
+                spec = spec.and((root, query, cb) -> cb.or(
+                        cb.like(cb.lower(root.get("month")), likePattern),
+                        cb.like(cb.lower(root.get("status")), likePattern)
+                ));
+            }
+
+            return meetingRepository.findAll(spec, pageable);
         } catch (Exception e) {
             log.error("Erreur lors de la recherche de réunions: {}", e.getMessage(), e);
             throw new RuntimeException("Impossible d'effectuer la recherche", e);
@@ -0,0 +1,71 @@
+package com.example.cerbo.service;
+
+import com.example.cerbo.repository.NotificationArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rétention des notifications : les notifications lues de plus de {@code retention-days} jours sont copiées
+ * dans notifications_archive puis supprimées, par lots d'au plus {@code batch-size} (une transaction par lot).
+ * Les non lues ne sont jamais archivées.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.retention.enabled", havingValue = "true")
+@Slf4j
+public class NotificationRetentionJob {
+
+    private final NotificationArchiveRepository notificationArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public NotificationRetentionJob(NotificationArchiveRepository notificationArchiveRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${notifications.retention.days:180}") int retentionDays,
+                                    @Value("${notifications.retention.batch-size:1000}") int batchSize,
+                                    @Value("${notifications.retention.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.notificationArchiveRepository = notificationArchiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 15 2 * * *}")
+    public void archive() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        int archived = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer count = transactionTemplate.execute(status -> archiveBatch(before));
+                if (count == null || count == 0) {
+                    break;
+                }
+                archived += count;
+            }
+        } catch (Exception e) {
+            log.error("Archivage des notifications interrompu après {} lignes", archived, e);
+        }
+        if (archived > 0) {
+            log.info("Rétention : {} notifications lues antérieures au {} archivées", archived, before.toLocalDate());
+        }
+    }
+
+    int archiveBatch(LocalDateTime before) {
+        List<Long> ids = notificationArchiveRepository.findArchivableIds(before, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        notificationArchiveRepository.copyToArchive(ids);
+        return notificationArchiveRepository.deleteArchived(ids);
+    }
+}
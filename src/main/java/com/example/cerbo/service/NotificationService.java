@@ -1,5 +1,6 @@
 package com.example.cerbo.service;
 
+import com.example.cerbo.dto.CursorPage;
 import com.example.cerbo.dto.NotificationDTO;
 import com.example.cerbo.entity.ApplicationEvent;
 import com.example.cerbo.entity.Notification;
@@ -9,15 +10,15 @@ import com.example.cerbo.entity.enums.EventType;
 import com.example.cerbo.entity.enums.NotificationStatus;
 import com.example.cerbo.repository.NotificationRepository;
 import com.example.cerbo.repository.UserRepository;
+import com.example.cerbo.service.mailService.EmailOutboxService;
+import com.example.cerbo.service.notificationBus.NotificationBus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,16 +35,22 @@ import java.util.stream.Collectors;
 public class NotificationService {
 
     private final ApplicationEventPublisher eventPublisher;
-    private final JavaMailSender mailSender;
+    private final EmailOutboxService emailOutboxService;
     private final NotificationRepository notificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationBus notificationBus;
     private final UserRepository userRepository;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+
+    @Value("${notifications.list.max-size:200}")
+    private int listLimit;
 
     // Méthodes existantes inchangées
     public List<Notification> sendNotification(User recipient, String title, String content, String derictionUrl) {
         return sendNotification(Collections.singletonList(recipient), title, content,derictionUrl);
     }
 
+    // Notifications et emails (outbox) sont écrits dans la même transaction ; l'envoi SMTP se fait en arrière-plan
+    @Transactional
     public List<Notification> sendNotification(List<User> recipients, String title, String content ,String derictionUrl) {
         List<Notification> notifications = recipients.stream()
                 .map(user -> createNotification(user, title, content, derictionUrl))
@@ -52,16 +59,16 @@ public class NotificationService {
         List<Notification> savedNotifications = notificationRepository.saveAll(notifications);
 
         savedNotifications.forEach(notification -> {
-            messagingTemplate.convertAndSend(
-                    "/topic/notifications/" + notification.getRecipient().getId(),
-                    notification
-            );
-            sendEmailNotification(notification.getRecipient().getEmail(), title, content);
+            User recipient = notification.getRecipient();
+            notificationBus.publish(recipient.getId(), recipient.getEmail(), convertToDTO(notification));
+            sendEmailNotification(recipient, title, content);
+            unreadNotificationCounter.adjust(recipient.getId(), recipient.getEmail(), 1);
         });
 
         return savedNotifications;
     }
 
+    @Transactional
     public List<Notification> sendNotificationByIds(List<Long> recipients, String title, String content,String derictionUrl) {
         List<Notification> notifications = recipients.stream()
                 .map(userId -> createNotification(userRepository.findById(userId).get(), title, content,derictionUrl))
@@ -70,11 +77,10 @@ public class NotificationService {
         List<Notification> savedNotifications = notificationRepository.saveAll(notifications);
 
         savedNotifications.forEach(notification -> {
-            messagingTemplate.convertAndSend(
-                    "/topic/notifications/" + notification.getRecipient().getId(),
-                    notification
-            );
-            sendEmailNotification(notification.getRecipient().getEmail(), title, content);
+            User recipient = notification.getRecipient();
+            notificationBus.publish(recipient.getId(), recipient.getEmail(), convertToDTO(notification));
+            sendEmailNotification(recipient, title, content);
+            unreadNotificationCounter.adjust(recipient.getId(), recipient.getEmail(), 1);
         });
 
         return savedNotifications;
@@ -92,24 +98,25 @@ public class NotificationService {
         notification.setSentDate(LocalDateTime.now());
         notification.setStatus(NotificationStatus.NON_LUE);
 
-        // Ajout de l'envoi d'email
-        sendEmailNotification(recipientEmail, "Nouvelle notification", content);
+        // Email mis en file dans la même transaction
+        if (recipient != null) {
+            sendEmailNotification(recipient, "Nouvelle notification", content);
+        }
 
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        if (recipient != null) {
+            notificationBus.publish(recipient.getId(), recipient.getEmail(), convertToDTO(saved));
+            unreadNotificationCounter.adjust(recipient.getId(), recipient.getEmail(), 1);
+        }
+        return saved;
     }
 
-    // Nouvelle méthode pour l'envoi d'email
-    @Async
-    protected void sendEmailNotification(String recipientEmail, String subject, String content) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(recipientEmail);
-            message.setSubject(subject);
-            message.setText("Notification:\n\n" + content + "\n\nCordialement,\nVotre application");
-            mailSender.send(message);
-        } catch (Exception e) {
-            log.error("Échec de l'envoi de l'email à {}", recipientEmail, e);
+    // Mise en file de l'email dans l'outbox (immédiat ou récapitulatif selon l'utilisateur), envoyé par EmailOutboxDispatcher
+    protected void sendEmailNotification(User recipient, String subject, String content) {
+        if (recipient.getEmail() == null || recipient.getEmail().isBlank()) {
+            return;
         }
+        emailOutboxService.enqueueNotification(recipient, subject, content);
     }
 
     // Méthode createNotification avec User (pour compatibilité)
@@ -121,17 +128,25 @@ public class NotificationService {
         notification.setRecipient(user);
         notification.setStatus(NotificationStatus.NON_LUE);
         notification.setSentDate(LocalDateTime.now());
-
-        sendEmailNotification(user.getEmail(), title, content);
-
         return notification;
     }
 
     // Reste des méthodes existantes inchangées...
-    public List<NotificationDTO> getNotificationDTOsForUser(String email) {
-        return getNotificationsForUser(email).stream()
+    // Liste simple (sans curseur) limitée aux notifications les plus récentes, avec le curseur de la suite
+    public CursorPage<NotificationDTO> getNotificationDTOsForUser(String email) {
+        Long userId = userRepository.findIdByEmail(email);
+        if (userId == null) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+        List<NotificationDTO> rows = notificationRepository.findByRecipientIdAfter(userId, null, null, PageRequest.of(0, listLimit + 1))
+                .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return CursorPage.of(rows, listLimit, dto -> CursorPage.encode(dto.getSentDate(), dto.getId()));
+    }
+
+    public long countNotificationsForUser(String email) {
+        return notificationRepository.countByRecipientEmail(email);
     }
 
     private NotificationDTO convertToDTO(Notification notification) {
@@ -154,27 +169,54 @@ public class NotificationService {
         return notificationRepository.findByRecipientOrderBySentDateDesc(user);
     }
 
-    public int countUnreadNotifications(String email) {
+    /**
+     * Notifications d'un utilisateur en pagination keyset sur (sentDate, id).
+     */
+    public CursorPage<NotificationDTO> getNotificationPageForUser(String email, String cursor, int size) {
         User user = userRepository.findByEmail(email);
-        return notificationRepository.countByRecipientAndStatus(user, NotificationStatus.NON_LUE);
+        CursorPage.Key after = CursorPage.decode(cursor);
+
+        List<NotificationDTO> rows = notificationRepository.findByRecipientIdAfter(
+                        user.getId(),
+                        after != null ? after.getDate() : null,
+                        after != null ? after.getId() : null,
+                        PageRequest.of(0, size + 1))
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+
+        return CursorPage.of(rows, size, dto -> CursorPage.encode(dto.getSentDate(), dto.getId()));
+    }
+
+    public int countUnreadNotifications(String email) {
+        return countUnreadNotifications(userRepository.findIdByEmail(email));
+    }
+
+    // Servi par le compteur en mémoire (UnreadNotificationCounter), sans requête en régime établi
+    public int countUnreadNotifications(Long userId) {
+        return userId != null ? unreadNotificationCounter.get(userId) : 0;
     }
 
     @Transactional
     public Notification markAsRead(Long notificationId) {
+        boolean changed = notificationRepository.markAsReadIfUnread(notificationId) > 0;
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification non trouvée"));
-
-        notification.setStatus(NotificationStatus.LUE);
-        return notificationRepository.save(notification);
+        if (changed) {
+            unreadNotificationCounter.adjust(notification.getRecipient().getId(), notification.getRecipient().getEmail(), -1);
+        }
+        return notification;
     }
 
+    // Un seul UPDATE sur les non lues du destinataire, sans charger ses notifications
     @Transactional
     public void markAllAsRead(String email) {
-        User user = userRepository.findByEmail(email);
-        List<Notification> notifications = notificationRepository.findByRecipientOrderBySentDateDesc(user);
-
-        notifications.forEach(notification -> notification.setStatus(NotificationStatus.LUE));
-        notificationRepository.saveAll(notifications);
+        Long userId = userRepository.findIdByEmail(email);
+        if (userId == null) {
+            return;
+        }
+        int changed = notificationRepository.markAllAsReadForRecipient(userId);
+        unreadNotificationCounter.adjust(userId, email, -changed);
     }
 
     public void notifyProjectSubmitted(Project project) {
@@ -186,7 +228,6 @@ public class NotificationService {
                 EventType.PROJECT_SUBMITTED, data));
     }
 
-    @Async
     @EventListener
     public void handleProjectSubmitted(ApplicationEvent event) {
         if (event.getType() == EventType.PROJECT_SUBMITTED) {
@@ -199,7 +240,7 @@ public class NotificationService {
                         "/admin/projects/"+event.getData().get("projectTitle"));
 
                 sendEmailNotification(
-                        admin.getEmail(),
+                        admin,
                         "Nouveau projet soumis",
                         "Le projet " + event.getData().get("projectTitle") + " a été soumis pour validation."
                 );
@@ -0,0 +1,167 @@
+package com.example.cerbo.service;
+
+import com.example.cerbo.entity.Document;
+import com.example.cerbo.entity.Project;
+import com.example.cerbo.exception.ResourceNotFoundException;
+import com.example.cerbo.repository.DocumentRepository;
+import com.example.cerbo.repository.ProjectRepository;
+import com.example.cerbo.repository.ReportRepository;
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Dossier complet d'un projet en ZIP (documents, dernier rapport, avis favorable, manifeste),
+ * écrit directement dans la réponse : rien n'est mis en mémoire ni sur disque.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProjectDossierService {
+
+    // Formats déjà compressés : stockés tels quels (STORED) pour ne pas dépenser de CPU inutilement
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "pdf", "docx", "xlsx", "pptx", "odt", "jpg", "jpeg", "png", "gif", "zip", "rar", "7z", "gz");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ProjectRepository projectRepository;
+    private final DocumentRepository documentRepository;
+    private final ReportRepository reportRepository;
+    private final FileStorageService fileStorageService;
+    private final StorageResolver storageResolver;
+    private final ObjectMapper objectMapper;
+
+    public record DossierEntry(String entryName, Path file, String source) {}
+
+    public record Dossier(Long projectId, String reference, String title, List<DossierEntry> entries) {
+        public String fileName() {
+            return "dossier_" + (reference != null ? reference : projectId) + ".zip";
+        }
+    }
+
+    /**
+     * Liste des fichiers du dossier, résolue dans la transaction de la requête (avant le streaming).
+     */
+    @Transactional(readOnly = true)
+    public Dossier prepare(Long projectId) {
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
+
+        List<DossierEntry> entries = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+
+        for (Document document : documentRepository.findDocumentsByProjectId(projectId)) {
+            Path file = fileStorageService.loadFile(document.getPath());
+            if (Files.isRegularFile(file)) {
+                String prefix = document.getType() != null ? document.getType().name() + "_" : "";
+                entries.add(new DossierEntry(uniqueName("documents/" + prefix + document.getName(), usedNames),
+                        file, "document:" + document.getId()));
+            }
+        }
+
+        reportRepository.findByProjectIdOrderByCreationDateDesc(projectId).stream()
+                .filter(report -> report.getFileName() != null)
+                .findFirst()
+                .ifPresent(report -> addIfExists(entries, usedNames, "rapport/" + report.getFileName(),
+                        storageResolver.resolve(StorageArea.REPORTS, report.getFileName()), "report:" + report.getId()));
+
+        if (project.getAvisFavorablePath() != null) {
+            Path avis = storageResolver.resolve(StorageArea.AVIS_FAVORABLE, project.getAvisFavorablePath());
+            addIfExists(entries, usedNames, "avis_favorable/" + avis.getFileName(), avis, "avis-favorable");
+        }
+
+        return new Dossier(project.getId(), project.getReference(), project.getTitle(), entries);
+    }
+
+    public void writeZip(Dossier dossier, OutputStream out) throws IOException {
+        List<Map<String, Object>> manifestEntries = new ArrayList<>();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (DossierEntry entry : dossier.entries()) {
+            ZipEntry zipEntry = new ZipEntry(entry.entryName());
+            long size = Files.size(entry.file());
+            boolean stored = COMPRESSED_EXTENSIONS.contains(extension(entry.entryName()));
+            if (stored) {
+                // STORED exige taille et CRC avant l'en-tête : une première lecture du fichier, sans le garder en mémoire
+                zipEntry.setMethod(ZipEntry.STORED);
+                zipEntry.setSize(size);
+                zipEntry.setCompressedSize(size);
+                zipEntry.setCrc(crc32(entry.file(), buffer));
+            }
+            zip.putNextEntry(zipEntry);
+            try (InputStream in = Files.newInputStream(entry.file())) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+            }
+            zip.closeEntry();
+
+            Map<String, Object> manifestEntry = new LinkedHashMap<>();
+            manifestEntry.put("name", entry.entryName());
+            manifestEntry.put("source", entry.source());
+            manifestEntry.put("size", size);
+            manifestEntry.put("method", stored ? "STORED" : "DEFLATED");
+            manifestEntries.add(manifestEntry);
+        }
+
+        Map<String, Object> manifest = new LinkedHashMap<>();
+        manifest.put("projectId", dossier.projectId());
+        manifest.put("reference", dossier.reference());
+        manifest.put("title", dossier.title());
+        manifest.put("generatedAt", LocalDateTime.now().toString());
+        manifest.put("entries", manifestEntries);
+
+        zip.putNextEntry(new ZipEntry("manifest.json"));
+        zip.write(objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(manifest));
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    private static void addIfExists(List<DossierEntry> entries, Set<String> usedNames, String name, Path file, String source) {
+        if (Files.isRegularFile(file)) {
+            entries.add(new DossierEntry(uniqueName(name, usedNames), file, source));
+        }
+    }
+
+    private static String uniqueName(String name, Set<String> usedNames) {
+        String candidate = name;
+        int dot = name.lastIndexOf('.');
+        for (int i = 2; !usedNames.add(candidate); i++) {
+            candidate = dot > name.lastIndexOf('/') ? name.substring(0, dot) + "_" + i + name.substring(dot) : name + "_" + i;
+        }
+        return candidate;
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static long crc32(Path file, byte[] buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.cerbo.service;
 
 import com.example.cerbo.annotation.Loggable;
+import com.example.cerbo.dto.CursorPage;
+import com.example.cerbo.dto.ProjectListItemDTO;
 import com.example.cerbo.dto.ProjectSubmissionDTO;
 import com.example.cerbo.entity.*;
 import com.example.cerbo.entity.enums.DocumentType;
@@ -9,8 +11,12 @@ import com.example.cerbo.exception.ResourceNotFoundException;
 import com.example.cerbo.repository.AuditLogRepository;
 import com.example.cerbo.repository.ProjectRepository;
 import com.example.cerbo.repository.UserRepository;
+import com.example.cerbo.security.ProjectMembershipCache;
+import com.example.cerbo.service.searchService.ProjectSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
@@ -32,6 +38,8 @@ public class ProjectService {
     private final FileStorageService fileStorageService;
     private final NotificationService notificationService;
     private final AuditLogRepository auditLogRepository;
+    private final ProjectMembershipCache projectMembershipCache;
+    private final ProjectSearchIndex projectSearchIndex;
 
 
     @Transactional
@@ -119,6 +127,7 @@ public class ProjectService {
                 "/admin/projects/"+savedProject.getId()+"/vueProject"
                 );
 
+        projectSearchIndex.indexAfterCommit(savedProject.getId());
         return projectRepository.save(savedProject);
     }
 
@@ -156,6 +165,88 @@ public class ProjectService {
 
         return projectRepository.findAll(spec);
     }
+    /**
+     * Liste paginée pour GET /api/projects : nombre constant de requêtes quelle que soit la taille de page
+     * (projection + count + co-investigateurs de la page).
+     */
+    @Transactional(readOnly = true)
+    public Page<ProjectListItemDTO> findProjectListPage(ProjectStatus status, String search, Pageable pageable) {
+        // Requêtes sans terme indexable (une seule lettre...) : LIKE comme avant l'index
+        if (search != null && projectSearchIndex.isReady() && projectSearchIndex.canSearch(search)) {
+            return findRankedProjectListPage(status, search, pageable);
+        }
+        String pattern = (search != null && !search.isEmpty()) ? "%" + search.toLowerCase() + "%" : null;
+        Page<ProjectListItemDTO> page = projectRepository.findProjectListItems(status, pattern, pageable);
+        attachCoInvestigators(page.getContent());
+        return page;
+    }
+
+    /**
+     * Recherche via l'index en mémoire : ids classés par pertinence, page découpée puis hydratée en une requête.
+     */
+    private Page<ProjectListItemDTO> findRankedProjectListPage(ProjectStatus status, String search, Pageable pageable) {
+        List<Long> ranked = projectSearchIndex.search(search, status);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, to);
+
+        List<ProjectListItemDTO> items = pageIds.isEmpty()
+                ? new ArrayList<>()
+                : new ArrayList<>(projectRepository.findProjectListItemsByIds(pageIds));
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < pageIds.size(); i++) {
+            rank.put(pageIds.get(i), i);
+        }
+        items.sort(Comparator.comparing(item -> rank.get(item.getId())));
+
+        long total = ranked.size();
+        if (items.size() < pageIds.size()) {
+            // Projets supprimés hors de l'application : retirés de l'index et du total
+            Set<Long> found = items.stream().map(ProjectListItemDTO::getId).collect(Collectors.toSet());
+            for (Long id : pageIds) {
+                if (!found.contains(id)) {
+                    projectSearchIndex.indexAfterCommit(id);
+                    total--;
+                }
+            }
+        }
+
+        attachCoInvestigators(items);
+        return new PageImpl<>(items, pageable, total);
+    }
+
+    /**
+     * Même liste en pagination keyset sur (submissionDate, id) : la page N coûte autant que la page 1.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectListItemDTO> findProjectListAfter(ProjectStatus status, String search, String cursor, int size) {
+        String pattern = (search != null && !search.isEmpty()) ? "%" + search.toLowerCase() + "%" : null;
+        CursorPage.Key after = CursorPage.decode(cursor);
+
+        List<ProjectListItemDTO> rows = projectRepository.findProjectListItemsAfter(
+                status, pattern,
+                after != null ? after.getDate() : null,
+                after != null ? after.getId() : null,
+                PageRequest.of(0, size + 1));
+
+        CursorPage<ProjectListItemDTO> result = CursorPage.of(rows, size,
+                item -> CursorPage.encode(item.getSubmissionDate(), item.getId()));
+        attachCoInvestigators(result.getItems());
+        return result;
+    }
+
+    private void attachCoInvestigators(List<ProjectListItemDTO> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, ProjectListItemDTO> byId = items.stream()
+                .collect(Collectors.toMap(ProjectListItemDTO::getId, item -> item));
+        for (Object[] row : projectRepository.findCoInvestigatorsByProjectIds(byId.keySet())) {
+            Project.CoInvestigator coInv = (Project.CoInvestigator) row[1];
+            byId.get((Long) row[0]).getCoInvestigators().add(ProjectListItemDTO.CoInvestigatorItem.from(coInv));
+        }
+    }
+
     public Page<Project> findFilteredProjects(ProjectStatus status, String search, Pageable pageable) {
         Specification<Project> spec = Specification.where(null);
 
@@ -195,6 +286,8 @@ public class ProjectService {
         project.setReviewers(reviewers);
         project.setStatus(ProjectStatus.EN_COURS);
         project.setReviewDate(LocalDateTime.now());
+        projectMembershipCache.invalidateProject(projectId);
+        projectSearchIndex.indexAfterCommit(projectId);
 
         return projectRepository.save(project);
     }
@@ -260,6 +353,7 @@ public class ProjectService {
             // You might want to add additional logic here based on status changes
             // For example, send notifications when status changes
 
+            projectSearchIndex.indexAfterCommit(id);
             return projectRepository.save(project);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status value: " + status);
@@ -289,9 +383,11 @@ public class ProjectService {
         }
         reviewers.add(evaluator);
         project.setReviewers(reviewers);
+        projectMembershipCache.invalidateProject(projectId);
 
         // You might want to update the status or send notifications here
         project.setStatus(ProjectStatus.EN_COURS);
+        projectSearchIndex.indexAfterCommit(projectId);
 
         return projectRepository.save(project);
     }
@@ -327,6 +423,8 @@ public class ProjectService {
         project.setReviewers(currentReviewers);
         project.setStatus(ProjectStatus.EN_COURS);
         project.setReviewDate(LocalDateTime.now());
+        projectMembershipCache.invalidateProject(projectId);
+        projectSearchIndex.indexAfterCommit(projectId);
 
         // Envoyer des notifications
         evaluators.forEach(evaluator -> {
@@ -356,6 +454,7 @@ public class ProjectService {
         }
 
         projectRepository.save(project);
+        projectMembershipCache.invalidateProject(projectId);
 
         // Envoyer notification
         notificationService.createNotification(
@@ -4,6 +4,8 @@ import com.example.cerbo.entity.DocumentReview;
 import com.example.cerbo.entity.Remark;
 import com.example.cerbo.entity.Report;
 import com.example.cerbo.repository.DocumentReviewRepository;
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfWriter;
 import lombok.AllArgsConstructor;
@@ -21,17 +23,12 @@ import java.util.stream.Collectors;
 @Service
 public class ReportGenerationService {
     DocumentReviewRepository documentReviewRepository;
+    StorageResolver storageResolver;
 
     public Path generateReportPdf(Report report) throws Exception {
 
         String fileName = "rapport_" + report.getId() + ".pdf";
-        Path folder = Path.of("uploads/reports");
-
-        if (!Files.exists(folder)) {
-            Files.createDirectories(folder);
-        }
-
-        Path path = folder.resolve(fileName);
+        Path path = storageResolver.resolveForWrite(StorageArea.REPORTS, fileName);
 
         List<DocumentReview> reviews = documentReviewRepository
                 .findByReportIdAndIncludedInReportTrue(report.getId());
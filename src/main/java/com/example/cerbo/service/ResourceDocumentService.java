@@ -5,6 +5,8 @@ import com.example.cerbo.entity.User;
 import com.example.cerbo.exception.ResourceNotFoundException;
 import com.example.cerbo.repository.ResourceDocumentRepository;
 import com.example.cerbo.repository.UserRepository;
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -16,7 +18,6 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -30,11 +31,11 @@ public class ResourceDocumentService {
     private final ResourceDocumentRepository resourceDocumentRepository;
     private final UserRepository userRepository;
 
-    private final Path fileStorageLocation = Paths.get("uploads/resources").toAbsolutePath().normalize();
+    private final StorageResolver storageResolver;
 
     public void init() {
         try {
-            Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(storageResolver.root(StorageArea.RESOURCES));
         } catch (Exception ex) {
             throw new RuntimeException("Could not create upload directory", ex);
         }
@@ -48,7 +49,7 @@ public class ResourceDocumentService {
         try {
             String originalFileName = file.getOriginalFilename();
             String fileName = UUID.randomUUID().toString() + "_" + originalFileName;
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
+            Path targetLocation = storageResolver.resolveForWrite(StorageArea.RESOURCES, fileName);
             Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
 
             User admin = userRepository.findByEmail(adminEmail);
@@ -94,7 +95,7 @@ public class ResourceDocumentService {
     public void deleteResourceDocument(Long id, String adminEmail) {
         ResourceDocument document = getResourceDocumentById(id);
         try {
-            Path filePath = this.fileStorageLocation.resolve(document.getPath()).normalize();
+            Path filePath = storageResolver.resolve(StorageArea.RESOURCES, document.getPath());
             Files.deleteIfExists(filePath);
             resourceDocumentRepository.deleteById(id);
         } catch (IOException ex) {
@@ -158,7 +159,7 @@ public class ResourceDocumentService {
 
     public Resource loadFileAsResource(String fileName) {
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
+            Path filePath = storageResolver.resolve(StorageArea.RESOURCES, fileName);
             Resource resource = new UrlResource(filePath.toUri());
             if(resource.exists()) {
                 return resource;
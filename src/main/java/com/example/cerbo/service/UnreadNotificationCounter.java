@@ -0,0 +1,115 @@
+package com.example.cerbo.service;
+
+import com.example.cerbo.entity.enums.NotificationStatus;
+import com.example.cerbo.repository.NotificationRepository;
+import com.example.cerbo.service.notificationBus.NotificationBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compteur de notifications non lues par utilisateur, tenu en mémoire et servi sans requête.
+ * La base reste la référence : un compteur absent (démarrage, éviction) ou plus vieux que {@code resync-ms}
+ * est relu par un COUNT, ce qui rattrape aussi les écritures faites par une autre instance.
+ * Chaque variation est appliquée après le commit et poussée à l'utilisateur par le {@link NotificationBus}.
+ */
+@Component
+@Slf4j
+public class UnreadNotificationCounter {
+
+    public static final String MESSAGE_TYPE = "UNREAD_COUNT";
+
+    private record CounterEntry(AtomicInteger count, long loadedAt) {}
+
+    private final Map<Long, CounterEntry> entries = new ConcurrentHashMap<>();
+    private final NotificationRepository notificationRepository;
+    private final NotificationBus notificationBus;
+    private final long resyncMillis;
+    private final int maxSize;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     NotificationBus notificationBus,
+                                     @Value("${notifications.unread-counter.resync-ms:600000}") long resyncMillis,
+                                     @Value("${notifications.unread-counter.max-size:50000}") int maxSize) {
+        this.notificationRepository = notificationRepository;
+        this.notificationBus = notificationBus;
+        this.resyncMillis = resyncMillis;
+        this.maxSize = maxSize;
+    }
+
+    public int get(Long userId) {
+        long now = System.currentTimeMillis();
+        CounterEntry entry = entries.get(userId);
+        if (entry != null && now - entry.loadedAt() < resyncMillis) {
+            return entry.count().get();
+        }
+        return load(userId, now);
+    }
+
+    /**
+     * Ajoute {@code delta} au compteur après le commit de la transaction courante (immédiatement hors transaction).
+     */
+    public void adjust(Long userId, String email, int delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            CounterEntry entry = entries.get(userId);
+            int unread = entry != null
+                    ? entry.count().updateAndGet(value -> Math.max(0, value + delta))
+                    : load(userId, System.currentTimeMillis());
+            push(userId, email, unread, delta);
+        });
+    }
+
+    /**
+     * Oublie le compteur (relu à la prochaine lecture), après le commit de la transaction courante.
+     */
+    public void invalidate(Long userId) {
+        afterCommit(() -> entries.remove(userId));
+    }
+
+    private int load(Long userId, long now) {
+        int count = notificationRepository.countByRecipientIdAndStatus(userId, NotificationStatus.NON_LUE);
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> now - entry.loadedAt() >= resyncMillis);
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+        entries.put(userId, new CounterEntry(new AtomicInteger(count), now));
+        return count;
+    }
+
+    private void push(Long userId, String email, int unread, int delta) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", MESSAGE_TYPE);
+        message.put("unreadCount", unread);
+        message.put("delta", delta);
+        try {
+            notificationBus.publishNow(userId, email, message);
+        } catch (RuntimeException e) {
+            log.warn("Envoi du compteur de non lues à l'utilisateur {} impossible", userId, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
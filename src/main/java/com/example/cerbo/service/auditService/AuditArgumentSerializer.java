@@ -0,0 +1,348 @@
+package com.example.cerbo.service.auditService;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Résumé borné des arguments d'une méthode {@code @Loggable} pour la colonne details du journal d'audit.
+ * Jamais de {@code toString()} sur un objet arbitraire : entités réduites à Type#id (proxys compris, sans les
+ * initialiser), collections et fichiers à leur taille (collections Hibernate non chargées signalées comme telles),
+ * chaînes tronquées, DTO et records sur un seul niveau, secrets masqués. Le résultat ne dépasse jamais
+ * {@code max-bytes} octets UTF-8 ; le tampon de travail est réutilisé par thread.
+ */
+@Component
+public class AuditArgumentSerializer {
+
+    private static final String ELLIPSIS = "...";
+    private static final String MASK = "***";
+    private static final String APPLICATION_PACKAGE = "com.example.cerbo.";
+
+    private final int maxStringLength;
+    private final ThreadLocal<Budget> buffers;
+
+    public AuditArgumentSerializer(@Value("${audit.details.max-bytes:255}") int maxBytes,
+                                   @Value("${audit.details.max-string-length:64}") int maxStringLength) {
+        this.maxStringLength = maxStringLength;
+        this.buffers = ThreadLocal.withInitial(() -> new Budget(maxBytes));
+    }
+
+    /**
+     * Arguments sous la forme {@code nom=valeur, ...} ; {@code names} peut être null ou plus court que {@code args}.
+     */
+    public String serialize(String[] names, Object[] args) {
+        Budget out = buffers.get().reset();
+        for (int i = 0; i < args.length && !out.full; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            String name = names != null && i < names.length ? names[i] : null;
+            if (name != null) {
+                out.append(name).append('=');
+            }
+            if (isSensitive(name)) {
+                out.append(args[i] == null ? "null" : MASK);
+            } else {
+                write(out, args[i], 0);
+            }
+        }
+        return out.result();
+    }
+
+    /**
+     * Texte libre (message d'exception...) tronqué à la même limite d'octets.
+     */
+    public String truncate(String text) {
+        return text == null ? null : buffers.get().reset().append(text).result();
+    }
+
+    private void write(Budget out, Object value, int depth) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof CharSequence text) {
+            writeString(out, text);
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum<?> || value instanceof TemporalAccessor || value instanceof UUID) {
+            out.append(value.toString());
+        } else if (value instanceof HibernateProxy proxy) {
+            LazyInitializer initializer = proxy.getHibernateLazyInitializer();
+            out.append(initializer.getPersistentClass().getSimpleName()).append('#')
+                    .append(String.valueOf(initializer.getIdentifier()));
+        } else if (value instanceof Collection<?> collection) {
+            // Une PersistentCollection non chargée déclencherait une requête sur size()
+            if (!Hibernate.isInitialized(collection)) {
+                out.append("collection(lazy)");
+            } else {
+                out.append("collection(size=").append(collection.size()).append(')');
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            if (!Hibernate.isInitialized(map)) {
+                out.append("map(lazy)");
+            } else {
+                out.append("map(size=").append(map.size()).append(')');
+            }
+        } else if (value instanceof MultipartFile file) {
+            out.append("file(");
+            writeString(out, String.valueOf(file.getOriginalFilename()));
+            out.append(", size=").append(file.getSize()).append(')');
+        } else if (value instanceof byte[] bytes) {
+            out.append("bytes(size=").append(bytes.length).append(')');
+        } else if (value.getClass().isArray()) {
+            out.append("array(size=").append(Array.getLength(value)).append(')');
+        } else {
+            writeObject(out, value, depth);
+        }
+    }
+
+    private void writeString(Budget out, CharSequence text) {
+        int length = text.length();
+        if (length <= maxStringLength) {
+            out.append(text);
+            return;
+        }
+        out.append(text, maxStringLength).append(ELLIPSIS).append('(').append(length).append(')');
+    }
+
+    private void writeObject(Budget out, Object value, int depth) {
+        Shape shape = SHAPES.get(value.getClass());
+        out.append(shape.name);
+        if (shape.idField != null) {
+            out.append('#').append(String.valueOf(read(shape.idField, value)));
+            return;
+        }
+        // Un seul niveau de détail : les objets imbriqués se limitent à leur type
+        if (shape.fields.length == 0 || depth > 0) {
+            return;
+        }
+        out.append('{');
+        for (int i = 0; i < shape.fields.length && !out.full; i++) {
+            Field field = shape.fields[i];
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(field.getName()).append('=');
+            Object fieldValue = read(field, value);
+            if (isSensitive(field.getName())) {
+                out.append(fieldValue == null ? "null" : MASK);
+            } else {
+                write(out, fieldValue, depth + 1);
+            }
+        }
+        out.append('}');
+    }
+
+    private static Object read(Field field, Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            return "?";
+        }
+    }
+
+    static boolean isSensitive(String name) {
+        if (name == null) {
+            return false;
+        }
+        return contains(name, "password") || contains(name, "secret") || contains(name, "token")
+                || name.equalsIgnoreCase("code");
+    }
+
+    // Sans toLowerCase() : aucune allocation par argument
+    private static boolean contains(String name, String part) {
+        for (int i = 0; i + part.length() <= name.length(); i++) {
+            if (name.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Description d'une classe calculée une seule fois : entité (champ @Id), objet applicatif ou record
+     * (champs détaillés), ou type opaque (nom seul).
+     */
+    private record Shape(String name, Field idField, Field[] fields) {
+    }
+
+    private static final ClassValue<Shape> SHAPES = new ClassValue<>() {
+        @Override
+        protected Shape computeValue(Class<?> type) {
+            String name = type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+            if (type.isAnnotationPresent(Entity.class)) {
+                return new Shape(name, accessible(idField(type)), new Field[0]);
+            }
+            if (type.isRecord()) {
+                List<Field> fields = new ArrayList<>();
+                for (RecordComponent component : type.getRecordComponents()) {
+                    fields.add(accessible(declaredField(type, component.getName())));
+                }
+                fields.removeIf(Objects::isNull);
+                return new Shape(name, null, fields.toArray(new Field[0]));
+            }
+            if (type.getName().startsWith(APPLICATION_PACKAGE)) {
+                List<Field> fields = new ArrayList<>();
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()
+                                && accessible(field) != null) {
+                            fields.add(field);
+                        }
+                    }
+                }
+                return new Shape(name, null, fields.toArray(new Field[0]));
+            }
+            return new Shape(name, null, new Field[0]);
+        }
+    };
+
+    private static Field idField(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Id.class)) {
+                    return field;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Field declaredField(Class<?> type, String name) {
+        try {
+            return type.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static Field accessible(Field field) {
+        if (field == null) {
+            return null;
+        }
+        try {
+            field.setAccessible(true);
+            return field;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tampon réutilisable qui compte les octets UTF-8 écrits et s'arrête net à la limite (terminé alors par "...").
+     */
+    private static final class Budget {
+
+        private final StringBuilder buffer;
+        private final int maxBytes;
+        private int bytes;
+        private boolean full;
+
+        Budget(int maxBytes) {
+            this.maxBytes = maxBytes;
+            this.buffer = new StringBuilder(maxBytes + ELLIPSIS.length());
+        }
+
+        Budget reset() {
+            buffer.setLength(0);
+            bytes = 0;
+            full = false;
+            return this;
+        }
+
+        Budget append(CharSequence text) {
+            return append(text, text.length());
+        }
+
+        Budget append(CharSequence text, int limit) {
+            int end = Math.min(limit, text.length());
+            // Cas courant : même à 3 octets par caractère le texte tient, copie en bloc
+            if (!full && bytes + 3L * end <= maxBytes) {
+                int size = 0;
+                for (int i = 0; i < end; i++) {
+                    char c = text.charAt(i);
+                    size += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+                }
+                buffer.append(text, 0, end);
+                bytes += size;
+                return this;
+            }
+            for (int i = 0; i < end && !full; i++) {
+                char c = text.charAt(i);
+                if (Character.isHighSurrogate(c) && i + 1 < end) {
+                    if (fits(4)) {
+                        buffer.append(c).append(text.charAt(++i));
+                    }
+                } else if (fits(c < 0x80 ? 1 : c < 0x800 ? 2 : 3)) {
+                    buffer.append(c);
+                }
+            }
+            return this;
+        }
+
+        Budget append(char c) {
+            if (fits(c < 0x80 ? 1 : c < 0x800 ? 2 : 3)) {
+                buffer.append(c);
+            }
+            return this;
+        }
+
+        Budget append(long number) {
+            if (full) {
+                return this;
+            }
+            int before = buffer.length();
+            buffer.append(number);
+            if (!fits(buffer.length() - before)) {
+                buffer.setLength(before);
+            }
+            return this;
+        }
+
+        private boolean fits(int size) {
+            if (full) {
+                return false;
+            }
+            if (bytes + size > maxBytes) {
+                full = true;
+                return false;
+            }
+            bytes += size;
+            return true;
+        }
+
+        // Tronqué : on libère la place de la marque "..." en retirant les derniers caractères
+        String result() {
+            if (full) {
+                while (buffer.length() > 0 && bytes + ELLIPSIS.length() > maxBytes) {
+                    int last = buffer.length() - 1;
+                    char c = buffer.charAt(last);
+                    if (Character.isLowSurrogate(c) && last > 0 && Character.isHighSurrogate(buffer.charAt(last - 1))) {
+                        buffer.setLength(last - 1);
+                        bytes -= 4;
+                    } else {
+                        buffer.setLength(last);
+                        bytes -= c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+                    }
+                }
+                buffer.append(ELLIPSIS);
+            }
+            return buffer.toString();
+        }
+    }
+}
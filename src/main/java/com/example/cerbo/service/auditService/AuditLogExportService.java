@@ -0,0 +1,188 @@
+package com.example.cerbo.service.auditService;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export complet du journal d'audit sur un intervalle [from, to), en CSV ou NDJSON compressé gzip.
+ * Lecture en flux JDBC avant uniquement (MySQL : résultat en streaming, propre à cette requête ; autres bases :
+ * {@code fetch-size} lignes à la fois) et écriture ligne à ligne dans la réponse : la mémoire utilisée ne dépend
+ * pas du nombre de lignes exportées.
+ */
+@Service
+@Slf4j
+public class AuditLogExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private static final String[] COLUMNS = {"id", "timestamp", "action_type", "entity_type", "entity_id",
+            "username", "user_id", "ip_address", "method_name", "details"};
+    private static final String SELECT_SQL = "SELECT " + String.join(", ", COLUMNS)
+            + " FROM audit_log WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, id";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public AuditLogExportService(JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${audit.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public long export(LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer, objectMapper);
+        rowWriter.header();
+
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Connector/J ne lit en flux que sur cette valeur, sans toucher à l'URL partagée par toute l'application
+                boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+                ps.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+                ps.setTimestamp(1, Timestamp.valueOf(from));
+                ps.setTimestamp(2, Timestamp.valueOf(to));
+                return ps;
+            }, rs -> {
+                try {
+                    rowWriter.row(rs);
+                    count[0]++;
+                } catch (IOException e) {
+                    // Client parti : on arrête la lecture
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        gzip.finish();
+        out.flush();
+        log.info("Export du journal d'audit ({}) : {} lignes en {} ms", format, count[0],
+                (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+
+    private interface RowWriter {
+        void header() throws IOException;
+
+        void row(ResultSet rs) throws IOException, SQLException;
+    }
+
+    private record CsvRowWriter(Writer writer) implements RowWriter {
+
+        @Override
+        public void header() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i + 1);
+                if (value instanceof Timestamp timestamp) {
+                    writer.write(timestamp.toLocalDateTime().toString());
+                } else if (value != null) {
+                    writeField(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180 : guillemets si nécessaire, guillemets internes doublés
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer, ObjectMapper objectMapper) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void header() {
+        }
+
+        @Override
+        public void row(ResultSet rs) throws IOException, SQLException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = rs.getObject(i + 1);
+                generator.writeFieldName(COLUMNS[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.cerbo.service.auditService;
+
+import com.example.cerbo.entity.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Recherche dans le journal d'audit : dates en intervalle [from, to) sur l'index timestamp, type d'action par
+ * égalité, et texte libre par préfixe de jeton dans audit_log_tokens (tous les mots doivent être présents).
+ * Tant que AuditTokenBackfill n'a pas indexé les entrées antérieures (ids inférieures à la plus petite log_id
+ * indexée), celles-ci restent trouvables par l'ancien LIKE, limité à cette plage d'ids.
+ */
+@Service
+@Transactional(readOnly = true)
+public class AuditLogSearchService {
+
+    private static final int MAX_QUERY_TOKENS = 5;
+
+    private final EntityManager entityManager;
+    private final long coverageRefreshMillis;
+
+    // Plus petite id couverte par l'index de jetons (null : tout est couvert), relue au plus toutes les coverageRefreshMillis
+    private record Coverage(Long legacyBelow, long checkedAt) {}
+
+    private volatile Coverage coverage;
+
+    public AuditLogSearchService(EntityManager entityManager,
+                                 @Value("${audit.token-index.coverage-refresh-ms:60000}") long coverageRefreshMillis) {
+        this.entityManager = entityManager;
+        this.coverageRefreshMillis = coverageRefreshMillis;
+    }
+
+    public Page<AuditLog> search(String searchTerm, String actionType, LocalDateTime from, LocalDateTime to,
+                                 Pageable pageable) {
+        Map<String, Object> params = new HashMap<>();
+        String where = where(searchTerm, actionType, from, to, null, null, params);
+
+        TypedQuery<AuditLog> query = entityManager.createQuery(
+                "SELECT a FROM AuditLog a" + where + " ORDER BY a.timestamp DESC, a.id DESC", AuditLog.class);
+        params.forEach(query::setParameter);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<AuditLog> content = query.getResultList();
+
+        if (!pageable.isPaged()) {
+            return new PageImpl<>(content);
+        }
+        TypedQuery<Long> count = entityManager.createQuery("SELECT COUNT(a) FROM AuditLog a" + where, Long.class);
+        params.forEach(count::setParameter);
+        return new PageImpl<>(content, pageable, count.getSingleResult());
+    }
+
+    /**
+     * Pagination keyset sur (timestamp, id) décroissants, après (afterDate, afterId).
+     */
+    public List<AuditLog> searchAfter(String searchTerm, String actionType, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime afterDate, Long afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        String where = where(searchTerm, actionType, from, to, afterDate, afterId, params);
+
+        TypedQuery<AuditLog> query = entityManager.createQuery(
+                "SELECT a FROM AuditLog a" + where + " ORDER BY a.timestamp DESC, a.id DESC", AuditLog.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    private String where(String searchTerm, String actionType, LocalDateTime from, LocalDateTime to,
+                                LocalDateTime afterDate, Long afterId, Map<String, Object> params) {
+        List<String> predicates = new ArrayList<>();
+        if (actionType != null && !actionType.isBlank()) {
+            predicates.add("a.actionType = :actionType");
+            params.put("actionType", actionType);
+        }
+        if (from != null) {
+            predicates.add("a.timestamp >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            predicates.add("a.timestamp < :to");
+            params.put("to", to);
+        }
+        if (afterDate != null && afterId != null) {
+            predicates.add("(a.timestamp < :afterDate OR (a.timestamp = :afterDate AND a.id < :afterId))");
+            params.put("afterDate", afterDate);
+            params.put("afterId", afterId);
+        }
+
+        List<String> tokenPredicates = new ArrayList<>();
+        for (String token : AuditTokens.of(searchTerm)) {
+            if (tokenPredicates.size() == MAX_QUERY_TOKENS) {
+                break;
+            }
+            int i = tokenPredicates.size();
+            // Même intervalle de dates sur les jetons : seules les partitions concernées sont lues
+            StringBuilder subquery = new StringBuilder("a.id IN (SELECT t.logId FROM AuditLogToken t WHERE t.token LIKE :token")
+                    .append(i);
+            if (from != null) {
+                subquery.append(" AND t.timestamp >= :from");
+            }
+            if (to != null) {
+                subquery.append(" AND t.timestamp < :to");
+            }
+            tokenPredicates.add(subquery.append(')').toString());
+            params.put("token" + i, token + "%");
+        }
+
+        if (!tokenPredicates.isEmpty()) {
+            String indexed = String.join(" AND ", tokenPredicates);
+            Long legacyBelow = legacyBelow();
+            if (legacyBelow == null) {
+                predicates.add("(" + indexed + ")");
+            } else {
+                predicates.add("((" + indexed + ") OR (a.id < :legacyBelow AND ("
+                        + "LOWER(a.username) LIKE :legacyTerm OR LOWER(a.actionType) LIKE :legacyTerm OR "
+                        + "LOWER(a.entityType) LIKE :legacyTerm OR LOWER(a.details) LIKE :legacyTerm)))");
+                params.put("legacyBelow", legacyBelow);
+                params.put("legacyTerm", "%" + searchTerm.trim().toLowerCase(Locale.ROOT) + "%");
+            }
+        }
+
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    /**
+     * Borne sous laquelle les entrées ne sont pas encore indexées, ou null si le rattrapage est terminé.
+     */
+    private Long legacyBelow() {
+        Coverage current = coverage;
+        long now = System.currentTimeMillis();
+        if (current == null || now - current.checkedAt() > coverageRefreshMillis) {
+            Long oldestIndexed = entityManager.createQuery("SELECT MIN(t.logId) FROM AuditLogToken t", Long.class)
+                    .getSingleResult();
+            Long oldestLog = entityManager.createQuery("SELECT MIN(a.id) FROM AuditLog a", Long.class)
+                    .getSingleResult();
+            Long legacyBelow;
+            if (oldestLog == null || (oldestIndexed != null && oldestIndexed <= oldestLog)) {
+                legacyBelow = null;
+            } else {
+                legacyBelow = oldestIndexed != null ? oldestIndexed : Long.MAX_VALUE;
+            }
+            current = new Coverage(legacyBelow, now);
+            coverage = current;
+        }
+        return current.legacyBelow();
+    }
+}
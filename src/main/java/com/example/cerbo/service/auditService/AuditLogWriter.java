@@ -0,0 +1,308 @@
+package com.example.cerbo.service.auditService;
+
+import com.example.cerbo.entity.AuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écriture asynchrone du journal d'audit : l'aspect dépose les entrées dans une file bornée sans verrou
+ * (CAS sur un compteur de places), un thread dédié les insère par lots JDBC toutes les {@code flush-interval-ms}
+ * ou dès qu'un lot est plein, avec les jetons de recherche de chaque entrée (audit_log_tokens). File pleine : politique {@code overflow-policy} (DROP_NEWEST, DROP_OLDEST, ou
+ * BLOCK qui attend au plus {@code block-timeout-ms} avant de jeter). À l'arrêt, la file est vidée en base.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        BLOCK
+    }
+
+    static final String INSERT_SQL = "INSERT INTO audit_log (timestamp, action_type, entity_type, entity_id, username, "
+            + "user_id, ip_address, method_name, details) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String INSERT_TOKEN_SQL = "INSERT INTO audit_log_tokens (token, log_id, timestamp) VALUES (?, ?, ?)";
+    private static final int MAX_RETRIES = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Queue<AuditLog> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    // Même limite que AuditArgumentSerializer (en octets, donc au moins autant de caractères) : simple garde-fou
+    private final int detailsMaxLength;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.writer.capacity:10000}") int capacity,
+                          @Value("${audit.writer.batch-size:200}") int batchSize,
+                          @Value("${audit.writer.flush-interval-ms:500}") long flushIntervalMillis,
+                          @Value("${audit.writer.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+                          @Value("${audit.writer.block-timeout-ms:50}") long blockTimeoutMillis,
+                          @Value("${audit.details.max-bytes:255}") int detailsMaxLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.detailsMaxLength = detailsMaxLength;
+        Gauge.builder("audit.writer.queue.depth", size, AtomicInteger::get)
+                .description("Entrées d'audit en attente d'écriture")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("audit.writer.dropped")
+                .description("Entrées d'audit perdues (file pleine ou échecs répétés)")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.writer.written")
+                .description("Entrées d'audit écrites en base")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.writer.batch.failed")
+                .description("Lots d'audit dont l'insertion a échoué")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = new Thread(this::run, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Dépose une entrée ; ne bloque jamais plus de {@code block-timeout-ms}. Retourne false si l'entrée est perdue.
+     */
+    public boolean enqueue(AuditLog entry) {
+        if (!running) {
+            droppedCounter.increment();
+            return false;
+        }
+        if (entry.getTimestamp() == null) {
+            entry.setTimestamp(LocalDateTime.now());
+        }
+        if (reserve()) {
+            return offer(entry);
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                if (queue.poll() != null) {
+                    droppedCounter.increment();
+                    queue.offer(entry);
+                    return true;
+                }
+                return enqueueOrDrop(entry);
+            }
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                LockSupport.unpark(writerThread);
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                    if (reserve()) {
+                        return offer(entry);
+                    }
+                }
+                droppedCounter.increment();
+                return false;
+            }
+            default -> {
+                droppedCounter.increment();
+                return false;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Ce qui reste (thread bloqué ou entrées déposées pendant l'arrêt) est écrit ici
+        int remaining = drainAll();
+        log.info("Journal d'audit vidé à l'arrêt ({} entrées)", remaining);
+    }
+
+    private void run() {
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            try {
+                drainAll();
+            } catch (RuntimeException e) {
+                log.error("Écriture du journal d'audit en échec", e);
+            }
+        }
+    }
+
+    private int drainAll() {
+        int total = 0;
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        AuditLog entry;
+        while ((entry = queue.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(entry);
+            if (batch.size() >= batchSize) {
+                total += write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            total += write(batch);
+        }
+        return total;
+    }
+
+    private int write(List<AuditLog> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                        (ConnectionCallback<Void>) connection -> {
+                            insertBatch(connection, batch);
+                            return null;
+                        }));
+                writtenCounter.increment(batch.size());
+                return batch.size();
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                if (attempt >= MAX_RETRIES) {
+                    droppedCounter.increment(batch.size());
+                    log.error("{} entrées d'audit abandonnées après {} tentatives", batch.size(), attempt, e);
+                    return 0;
+                }
+                log.warn("Insertion d'un lot d'audit en échec (tentative {}), nouvel essai", attempt, e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L * attempt));
+            }
+        }
+    }
+
+    // Entrées puis jetons de recherche (audit_log_tokens), dans la même transaction
+    private void insertBatch(Connection connection, List<AuditLog> batch) throws SQLException {
+        List<Long> ids = new ArrayList<>(batch.size());
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (AuditLog entry : batch) {
+                ps.setTimestamp(1, Timestamp.valueOf(entry.getTimestamp()));
+                ps.setString(2, entry.getActionType());
+                ps.setString(3, entry.getEntityType());
+                setLong(ps, 4, entry.getEntityId());
+                ps.setString(5, entry.getUsername());
+                setLong(ps, 6, entry.getUserId());
+                ps.setString(7, entry.getIpAddress());
+                ps.setString(8, entry.getMethodName());
+                ps.setString(9, truncate(entry.getDetails()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                while (keys.next()) {
+                    ids.add(keys.getLong(1));
+                }
+            }
+        }
+        if (ids.size() != batch.size()) {
+            throw new SQLException("Clés générées incomplètes pour le lot d'audit (" + ids.size() + "/" + batch.size() + ")");
+        }
+
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_TOKEN_SQL)) {
+            for (int i = 0; i < batch.size(); i++) {
+                AuditLog entry = batch.get(i);
+                entry.setId(ids.get(i));
+                Timestamp timestamp = Timestamp.valueOf(entry.getTimestamp());
+                for (String token : AuditTokens.of(entry)) {
+                    ps.setString(1, token);
+                    ps.setLong(2, ids.get(i));
+                    ps.setTimestamp(3, timestamp);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private boolean reserve() {
+        while (true) {
+            int current = size.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (size.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean offer(AuditLog entry) {
+        queue.offer(entry);
+        if (size.get() >= batchSize) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    private boolean enqueueOrDrop(AuditLog entry) {
+        if (reserve()) {
+            return offer(entry);
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    String truncate(String details) {
+        if (details == null || details.length() <= detailsMaxLength) {
+            return details;
+        }
+        // Ne coupe pas une paire de substitution en deux
+        int end = Character.isHighSurrogate(details.charAt(detailsMaxLength - 1)) ? detailsMaxLength - 1 : detailsMaxLength;
+        return details.substring(0, end);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.cerbo.service.auditService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Partitionnement mensuel (MySQL, RANGE sur TO_DAYS(timestamp)) de audit_log et audit_log_tokens.
+ * Chaque jour, les partitions des {@code months-ahead} prochains mois sont créées à partir de pmax ; si
+ * {@code retention-months} est positif, celles plus anciennes sont supprimées (DROP PARTITION : instantané, sans
+ * DELETE, et définitif). Désactivé par défaut.
+ * <p>
+ * La conversion initiale des tables créées par Hibernate (clé primaire étendue à timestamp, ALTER ... PARTITION BY
+ * avec recopie complète, table verrouillée en écriture pendant ce temps) n'est jamais lancée par l'application :
+ * c'est une étape d'exploitation, à faire une fois dans une fenêtre de maintenance. Tant qu'une table n'est pas
+ * partitionnée, le passage journalier la laisse intacte et journalise les instructions SQL à exécuter.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.partitioning.enabled", havingValue = "true")
+@Slf4j
+public class AuditPartitionManager {
+
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p\\d{6}");
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate,
+                                 @Value("${audit.partitioning.months-ahead:3}") int monthsAhead,
+                                 @Value("${audit.partitioning.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${audit.partitioning.cron:0 0 3 * * *}")
+    public void maintain() {
+        maintain("audit_log", "id, timestamp");
+        maintain("audit_log_tokens", "token, log_id, timestamp");
+    }
+
+    private void maintain(String table, String primaryKey) {
+        try {
+            List<String> partitions = partitions(table);
+            if (partitions.isEmpty()) {
+                log.warn("{} n'est pas partitionnée : conversion à exécuter manuellement (fenêtre de maintenance) :\n{}",
+                        table, String.join(";\n", conversionStatements(table, primaryKey)) + ";");
+                return;
+            }
+            addUpcoming(table, partitions);
+            dropExpired(table, partitions);
+        } catch (Exception e) {
+            log.error("Maintenance des partitions de {} en échec", table, e);
+        }
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, table);
+    }
+
+    // Conversion initiale, jamais exécutée ici : ALTER avec recopie de toute la table
+    List<String> conversionStatements(String table, String primaryKey) {
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + table, LocalDateTime.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+
+        return List.of(
+                "ALTER TABLE " + table + " MODIFY timestamp DATETIME(6) NOT NULL",
+                "ALTER TABLE " + table + " DROP PRIMARY KEY, ADD PRIMARY KEY (" + primaryKey + ")",
+                "ALTER TABLE " + table + " PARTITION BY RANGE (TO_DAYS(timestamp)) (" + String.join(", ", definitions) + ")");
+    }
+
+    private void addUpcoming(String table, List<String> partitions) {
+        YearMonth latest = partitions.stream()
+                .filter(name -> MONTH_PARTITION.matcher(name).matches())
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .max(YearMonth::compareTo)
+                .orElse(YearMonth.now().minusMonths(1));
+        YearMonth target = YearMonth.now().plusMonths(monthsAhead);
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = latest.plusMonths(1); !month.isAfter(target); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        if (definitions.isEmpty()) {
+            return;
+        }
+        definitions.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION pmax INTO ("
+                + String.join(", ", definitions) + ")");
+        log.info("{} : {} partitions mensuelles ajoutées", table, definitions.size() - 1);
+    }
+
+    private void dropExpired(String table, List<String> partitions) {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth limit = YearMonth.now().minusMonths(retentionMonths);
+        List<String> expired = partitions.stream()
+                .filter(name -> MONTH_PARTITION.matcher(name).matches())
+                .filter(name -> YearMonth.parse(name, PARTITION_NAME).isBefore(limit))
+                .toList();
+        if (!expired.isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + String.join(", ", expired));
+            log.info("{} : partitions {} supprimées (rétention {} mois)", table, expired, retentionMonths);
+        }
+    }
+
+    private static String definition(YearMonth month) {
+        return "PARTITION " + PARTITION_NAME.format(month) + " VALUES LESS THAN (TO_DAYS('"
+                + month.plusMonths(1).atDay(1) + "'))";
+    }
+}
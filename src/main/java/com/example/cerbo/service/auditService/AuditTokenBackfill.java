@@ -0,0 +1,91 @@
+package com.example.cerbo.service.auditService;
+
+import com.example.cerbo.entity.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Indexation des entrées d'audit antérieures à l'index de jetons, par lots d'ids décroissantes, en arrière-plan.
+ * Les entrées écrites par AuditLogWriter ont déjà leurs jetons : on part de la plus petite log_id indexée et
+ * on descend, ce qui permet aussi de reprendre là où un passage interrompu s'est arrêté.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.token-index.backfill-on-startup", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class AuditTokenBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public AuditTokenBackfill(JdbcTemplate jdbcTemplate,
+                              @Value("${audit.token-index.backfill-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::backfill, "audit-token-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void backfill() {
+        try {
+            Long boundary = jdbcTemplate.queryForObject("SELECT MIN(log_id) FROM audit_log_tokens", Long.class);
+            if (boundary == null) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM audit_log", Long.class);
+                boundary = maxId != null ? maxId + 1 : 0L;
+            }
+
+            long indexed = 0;
+            while (true) {
+                List<AuditLog> rows = jdbcTemplate.query(
+                        "SELECT id, timestamp, action_type, entity_type, username, method_name, details FROM audit_log "
+                                + "WHERE id < ? ORDER BY id DESC LIMIT ?",
+                        (rs, i) -> {
+                            AuditLog row = new AuditLog();
+                            row.setId(rs.getLong("id"));
+                            Timestamp timestamp = rs.getTimestamp("timestamp");
+                            row.setTimestamp(timestamp != null ? timestamp.toLocalDateTime() : null);
+                            row.setActionType(rs.getString("action_type"));
+                            row.setEntityType(rs.getString("entity_type"));
+                            row.setUsername(rs.getString("username"));
+                            row.setMethodName(rs.getString("method_name"));
+                            row.setDetails(rs.getString("details"));
+                            return row;
+                        },
+                        boundary, batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+
+                List<Object[]> tokens = new ArrayList<>();
+                for (AuditLog row : rows) {
+                    if (row.getTimestamp() == null) {
+                        continue;
+                    }
+                    for (String token : AuditTokens.of(row)) {
+                        tokens.add(new Object[]{token, row.getId(), Timestamp.valueOf(row.getTimestamp())});
+                    }
+                }
+                // IGNORE : relance après une interruption sans erreur de doublon
+                jdbcTemplate.batchUpdate("INSERT IGNORE INTO audit_log_tokens (token, log_id, timestamp) VALUES (?, ?, ?)", tokens);
+                boundary = rows.get(rows.size() - 1).getId();
+                indexed += rows.size();
+            }
+            log.info("Index de jetons du journal d'audit : {} entrées anciennes indexées", indexed);
+        } catch (Exception e) {
+            log.error("Indexation des anciennes entrées d'audit interrompue", e);
+        }
+    }
+}
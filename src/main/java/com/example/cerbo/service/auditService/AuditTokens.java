@@ -0,0 +1,55 @@
+package com.example.cerbo.service.auditService;
+
+import com.example.cerbo.entity.AuditLog;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Découpage en jetons des entrées d'audit (utilisateur, action, entité, méthode, détails) et des recherches :
+ * minuscules, sans accents, séparés sur tout ce qui n'est ni lettre ni chiffre.
+ */
+final class AuditTokens {
+
+    static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_TOKENS_PER_ENTRY = 64;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private AuditTokens() {
+    }
+
+    static Set<String> of(AuditLog entry) {
+        Set<String> tokens = new LinkedHashSet<>();
+        add(tokens, entry.getUsername());
+        add(tokens, entry.getActionType());
+        add(tokens, entry.getEntityType());
+        add(tokens, entry.getMethodName());
+        add(tokens, entry.getDetails());
+        return tokens;
+    }
+
+    static Set<String> of(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        add(tokens, text);
+        return tokens;
+    }
+
+    private static void add(Set<String> tokens, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        for (String token : SEPARATORS.split(folded)) {
+            if (tokens.size() >= MAX_TOKENS_PER_ENTRY) {
+                return;
+            }
+            if (token.length() > 1 || (!token.isEmpty() && Character.isDigit(token.charAt(0)))) {
+                tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.cerbo.service.blacklistService;
 
+import java.util.Date;
+
 public interface BlacklistService {
     void add(String token);
+    void add(String token, Date expiresAt);
     boolean isBlacklisted(String token);
 }
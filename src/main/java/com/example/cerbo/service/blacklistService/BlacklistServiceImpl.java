@@ -1,22 +1,171 @@
 package com.example.cerbo.service.blacklistService;
 
+import com.example.cerbo.dto.JwtClaims;
+import com.example.cerbo.dto.JwtTokenUtil;
+import com.example.cerbo.entity.RevokedToken;
+import com.example.cerbo.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Store des tokens révoqués : table revoked_tokens (partagée entre nœuds, rechargée au démarrage, relue par
+ * fenêtre de dates avec recouvrement, puis entièrement à chaque purge)
+ * + index mémoire borné (les entrées disparaissent à l'expiration du token)
+ * + filtre de Bloom pour que le cas courant "non révoqué" soit sans verrou.
+ */
 @Service
+@Slf4j
 public class BlacklistServiceImpl implements BlacklistService {
 
-    private Set<String> blacklistedTokens = new HashSet<>();
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponible", e);
+        }
+    });
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtTokenUtil jwtTokenUtil;
+    private final int bloomBits;
+    private final int bloomHashes;
+    private final long syncOverlapMillis;
+
+    // hash du token -> expiration (epoch millis)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // Début de la dernière synchronisation réussie (horloge locale)
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+    private volatile TokenBloomFilter bloomFilter;
+
+    public BlacklistServiceImpl(RevokedTokenRepository revokedTokenRepository,
+                                JwtTokenUtil jwtTokenUtil,
+                                @Value("${security.revocation.bloom-bits:1048576}") int bloomBits,
+                                @Value("${security.revocation.bloom-hashes:5}") int bloomHashes,
+                                @Value("${security.revocation.sync-overlap-ms:300000}") long syncOverlapMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.bloomBits = bloomBits;
+        this.bloomHashes = bloomHashes;
+        this.syncOverlapMillis = syncOverlapMillis;
+        this.bloomFilter = new TokenBloomFilter(bloomBits, bloomHashes);
+    }
+
+    @PostConstruct
+    public void loadRevokedTokens() {
+        lastSync = LocalDateTime.now();
+        List<RevokedToken> active = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+        active.forEach(this::register);
+        log.info("{} tokens révoqués chargés depuis la base", active.size());
+    }
 
     @Override
     public void add(String token) {
-        blacklistedTokens.add(token);
+        JwtClaims claims = jwtTokenUtil.parseAccessToken(token);
+        Date expiresAt = claims != null && claims.getExpiration() != null
+                ? claims.getExpiration()
+                : new Date(System.currentTimeMillis() + jwtTokenUtil.getAccessTokenExpiration());
+        add(token, expiresAt);
+    }
+
+    @Override
+    public void add(String token, Date expiresAt) {
+        if (token == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return; // token déjà inutilisable, rien à révoquer
+        }
+
+        byte[] digest = digest(token);
+        String hash = HexFormat.of().formatHex(digest);
+
+        synchronized (this) {
+            if (revokedTokens.putIfAbsent(hash, expiresAt.getTime()) != null) {
+                return;
+            }
+            bloomFilter.put(digest);
+        }
+
+        try {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .tokenHash(hash)
+                    .expiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()))
+                    .revokedAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Token déjà révoqué par un autre nœud");
+        }
     }
 
     @Override
     public boolean isBlacklisted(String token) {
-        return blacklistedTokens.contains(token);
+        byte[] digest = digest(token);
+        if (!bloomFilter.mightContain(digest)) {
+            return false;
+        }
+        Long expiresAt = revokedTokens.get(HexFormat.of().formatHex(digest));
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Récupère les révocations faites sur les autres nœuds depuis la dernière synchronisation. La fenêtre remonte
+     * de {@code sync-overlap-ms} pour couvrir les écarts d'horloge et les transactions validées en retard ;
+     * les lignes déjà connues sont ignorées.
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval-ms:30000}")
+    public void syncFromDatabase() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        revokedTokenRepository
+                .findByRevokedAtGreaterThanEqualAndExpiresAtAfter(
+                        lastSync.minus(syncOverlapMillis, ChronoUnit.MILLIS), startedAt)
+                .forEach(this::register);
+        lastSync = startedAt;
+    }
+
+    /**
+     * Supprime les révocations de tokens expirés (base + mémoire), relit toutes les révocations actives (filet de
+     * sécurité si une ligne a échappé à la fenêtre de synchronisation) et reconstruit le filtre de Bloom.
+     */
+    @Scheduled(cron = "${security.revocation.purge-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now()).forEach(this::register);
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+            TokenBloomFilter rebuilt = new TokenBloomFilter(bloomBits, bloomHashes);
+            revokedTokens.keySet().forEach(hash -> rebuilt.put(HexFormat.of().parseHex(hash)));
+            bloomFilter = rebuilt;
+        }
+        log.debug("Purge des tokens révoqués : {} lignes supprimées, {} actives", deleted, revokedTokens.size());
+    }
+
+    private void register(RevokedToken revokedToken) {
+        long expiresAt = revokedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (this) {
+            if (revokedTokens.putIfAbsent(revokedToken.getTokenHash(), expiresAt) == null) {
+                bloomFilter.put(HexFormat.of().parseHex(revokedToken.getTokenHash()));
+            }
+        }
+    }
+
+    private static byte[] digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return md.digest(token.getBytes(StandardCharsets.UTF_8));
     }
 }
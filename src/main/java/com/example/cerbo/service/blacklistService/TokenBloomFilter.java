@@ -0,0 +1,55 @@
+package com.example.cerbo.service.blacklistService;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sans verrou utilisé comme fast path de BlacklistServiceImpl :
+ * un "non" est définitif, un "oui" doit être confirmé dans la table des révocations.
+ * Les index sont dérivés directement du SHA-256 du token (double hachage).
+ */
+class TokenBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    TokenBloomFilter(int bitCount, int hashCount) {
+        this.bitCount = Math.max(64, bitCount);
+        this.hashCount = Math.max(1, hashCount);
+        this.bits = new AtomicLongArray((this.bitCount + 63) / 64);
+    }
+
+    void put(byte[] digest) {
+        long h1 = toLong(digest, 0);
+        long h2 = toLong(digest, 8);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << (bit & 63);
+            bits.getAndAccumulate(bit >>> 6, mask, (current, m) -> current | m);
+        }
+    }
+
+    boolean mightContain(byte[] digest) {
+        long h1 = toLong(digest, 0);
+        long h2 = toLong(digest, 8);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(long combined) {
+        return (int) Math.floorMod(combined, (long) bitCount);
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -2,15 +2,13 @@ package com.example.cerbo.service.documentService;
 
 import com.example.cerbo.entity.*;
 import com.example.cerbo.repository.*;
-import jakarta.annotation.PostConstruct;
+import com.example.cerbo.service.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -28,19 +26,10 @@ public class DocumentServiceImpl implements DocumentService {
     private ArticleRepository articleRepository;
     @Autowired
     private ProjectRepository projectRepository;
+    @Autowired
+    private FileStorageService fileStorageService;
 
 
-    @Value("${upload.directory}") // le chemin d'upload
-    private String uploadDir;
-
-    @PostConstruct
-    public void init() {
-        File dir = new File(uploadDir);
-        if (!dir.isAbsolute()) {
-            this.uploadDir = dir.getAbsolutePath();
-        }
-    }
-
     @Override
     public Document getDocumentById(Long id) {
         return documentRepository.findById(id).orElse(null);
@@ -57,20 +46,30 @@ public class DocumentServiceImpl implements DocumentService {
             throw new IllegalArgumentException("File is empty");
         }
 
-        File directory = new File(uploadDir);
-        if (!directory.exists()) {
-            directory.mkdirs();  // Crée le répertoire si il n'existe pas
-        }
-
-        // Générer un nom unique pour le fichier
-        String filename = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        String filePath = Paths.get(uploadDir, filename).toString();
-        System.out.println(filePath);
+        String filename;
+        String filePath;
+        if (fileStorageService.isContentAddressed()) {
+            // Contenu déjà connu : une référence de plus sur le même blob
+            try {
+                filename = fileStorageService.storeFile(file);
+            } catch (RuntimeException e) {
+                return "Erreur lors du téléchargement du fichier : " + e.getMessage();
+            }
+            filePath = fileStorageService.loadFile(filename).toString();
+        } else {
+            // Générer un nom unique pour le fichier
+            filename = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
+            try {
+                filePath = fileStorageService.pathForWrite(filename).toString();
+            } catch (IOException e) {
+                return "Erreur lors du téléchargement du fichier : " + e.getMessage();
+            }
 
-        try {
-            file.transferTo(new File(filePath));
-        } catch (IOException e) {
-            return "Erreur lors du téléchargement du fichier : " + e.getMessage();
+            try {
+                file.transferTo(new File(filePath));
+            } catch (IOException e) {
+                return "Erreur lors du téléchargement du fichier : " + e.getMessage();
+            }
         }
 
         Document document = new Document();
@@ -143,13 +142,7 @@ public class DocumentServiceImpl implements DocumentService {
     public String removeDocumentById(Long id){
         Document document = documentRepository.findById(id).orElse(null);
         if(document != null) {
-            File file = new File(document.getPath());
-            if (file.exists() && file.isFile()) {
-                boolean fileDeleted = file.delete();
-                if (!fileDeleted) {
-                    return "Erreur lors de la suppression du fichier : " + document.getPath();
-                }
-            }
+            // Le fichier (ou la référence au blob partagé) est libéré après commit par DocumentFileListener
             documentRepository.delete(document);
         }
         else{
@@ -167,20 +160,32 @@ public class DocumentServiceImpl implements DocumentService {
 
         // Si un nouveau fichier est fourni
         if (newFile != null && !newFile.isEmpty()) {
-            // Supprimer l'ancien fichier
-            File oldFile = new File(document.getPath());
-            if (oldFile.exists() && oldFile.isFile()) {
-                oldFile.delete();
-            }
-
-            // Générer nouveau chemin
-            String newFilename = UUID.randomUUID().toString() + "_" + newFile.getOriginalFilename();
-            String newPath = Paths.get(uploadDir, newFilename).toString();
+            // Supprimer l'ancien fichier (ou libérer sa référence)
+            fileStorageService.deleteFile(document.getPath());
+
+            String newFilename;
+            String newPath;
+            if (fileStorageService.isContentAddressed()) {
+                try {
+                    newFilename = fileStorageService.storeFile(newFile);
+                } catch (RuntimeException e) {
+                    return "Erreur lors de l'enregistrement du nouveau fichier : " + e.getMessage();
+                }
+                newPath = fileStorageService.loadFile(newFilename).toString();
+            } else {
+                // Générer nouveau chemin
+                newFilename = UUID.randomUUID().toString() + "_" + newFile.getOriginalFilename();
+                try {
+                    newPath = fileStorageService.pathForWrite(newFilename).toString();
+                } catch (IOException e) {
+                    return "Erreur lors de l'enregistrement du nouveau fichier : " + e.getMessage();
+                }
 
-            try {
-                newFile.transferTo(new File(newPath));
-            } catch (IOException e) {
-                return "Erreur lors de l'enregistrement du nouveau fichier : " + e.getMessage();
+                try {
+                    newFile.transferTo(new File(newPath));
+                } catch (IOException e) {
+                    return "Erreur lors de l'enregistrement du nouveau fichier : " + e.getMessage();
+                }
             }
 
             // Mettre à jour les infos du document
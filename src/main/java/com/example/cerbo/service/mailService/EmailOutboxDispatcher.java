@@ -0,0 +1,210 @@
+package com.example.cerbo.service.mailService;
+
+import com.example.cerbo.entity.EmailOutbox;
+import com.example.cerbo.entity.enums.OutboxStatus;
+import com.example.cerbo.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Vide la table email_outbox par lots. Chaque lot est envoyé en un seul appel à
+ * {@link JavaMailSender#send(SimpleMailMessage...)}, qui réutilise une seule connexion SMTP pour tout le lot.
+ * Les lignes sont prises en charge par un jeton + bail (plusieurs instances peuvent tourner) ;
+ * un échec est retenté avec un backoff exponentiel jusqu'à {@code max-attempts}, puis marqué FAILED.
+ */
+@Component
+@ConditionalOnProperty(name = "mail.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final long leaseMillis;
+    private final int retentionDays;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 EmailOutboxService emailOutboxService,
+                                 JavaMailSender mailSender,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${mail.outbox.max-batches-per-run:20}") int maxBatchesPerRun,
+                                 @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${mail.outbox.backoff-base-ms:30000}") long backoffBaseMillis,
+                                 @Value("${mail.outbox.backoff-max-ms:3600000}") long backoffMaxMillis,
+                                 @Value("${mail.outbox.lease-ms:300000}") long leaseMillis,
+                                 @Value("${mail.outbox.retention-days:7}") int retentionDays) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailOutboxService = emailOutboxService;
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.leaseMillis = leaseMillis;
+        this.retentionDays = retentionDays;
+        this.sentCounter = Counter.builder("mail.outbox.sent")
+                .description("Emails envoyés depuis l'outbox")
+                .register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.outbox.retried")
+                .description("Envois en échec reprogrammés")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failed")
+                .description("Emails abandonnés après le nombre maximal de tentatives")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}", initialDelayString = "${mail.outbox.initial-delay-ms:10000}")
+    public void dispatch() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (dispatchBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Envoi des emails de l'outbox en échec", e);
+        }
+    }
+
+    // Les récapitulatifs composés passent ensuite par le circuit normal (PENDING)
+    @Scheduled(fixedDelayString = "${mail.digest.poll-interval-ms:60000}", initialDelayString = "${mail.outbox.initial-delay-ms:10000}")
+    public void composeDigests() {
+        try {
+            emailOutboxService.composeDueDigests();
+        } catch (Exception e) {
+            log.warn("Composition des récapitulatifs reportée : {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Outbox : {} emails envoyés purgés", deleted);
+        }
+    }
+
+    /**
+     * Prend en charge et envoie un lot ; retourne le nombre de lignes dues trouvées.
+     */
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = emailOutboxRepository.findDueIds(OutboxStatus.PENDING, now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) {
+            return 0;
+        }
+
+        String token = UUID.randomUUID().toString();
+        emailOutboxRepository.claim(dueIds, now, now.plusNanos(leaseMillis * 1_000_000), token);
+        List<EmailOutbox> batch = emailOutboxRepository.findByClaimTokenOrderByIdAsc(token);
+        if (batch.isEmpty()) {
+            // Lot pris par une autre instance
+            return dueIds.size();
+        }
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            messages[i] = toMessage(batch.get(i));
+        }
+
+        Map<Object, Exception> failures = send(messages);
+
+        List<Long> sentIds = new ArrayList<>();
+        List<EmailOutbox> retried = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox row = batch.get(i);
+            Exception failure = failures.get(messages[i]);
+            if (failure == null) {
+                sentIds.add(row.getId());
+            } else {
+                reschedule(row, failure);
+                retried.add(row);
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            emailOutboxRepository.markSent(sentIds, LocalDateTime.now());
+            sentCounter.increment(sentIds.size());
+        }
+        if (!retried.isEmpty()) {
+            emailOutboxRepository.saveAll(retried);
+        }
+        log.debug("Outbox : lot de {} emails, {} envoyés, {} en échec", batch.size(), sentIds.size(), retried.size());
+        return dueIds.size();
+    }
+
+    private Map<Object, Exception> send(SimpleMailMessage[] messages) {
+        try {
+            mailSender.send(messages);
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return failAll(messages, e);
+        } catch (RuntimeException e) {
+            // Authentification, connexion impossible... : tout le lot est à retenter
+            return failAll(messages, e);
+        }
+    }
+
+    private static Map<Object, Exception> failAll(SimpleMailMessage[] messages, Exception e) {
+        Map<Object, Exception> failures = new HashMap<>();
+        for (SimpleMailMessage message : messages) {
+            failures.put(message, e);
+        }
+        return failures;
+    }
+
+    private void reschedule(EmailOutbox row, Exception failure) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setClaimToken(null);
+        row.setLastError(truncate(String.valueOf(failure.getMessage()), 500));
+
+        if (attempts >= maxAttempts) {
+            row.setStatus(OutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("Email {} à {} abandonné après {} tentatives : {}", row.getId(), row.getRecipient(), attempts, row.getLastError());
+            return;
+        }
+        long delay = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempts - 1, 20));
+        row.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+        retriedCounter.increment();
+        log.warn("Email {} à {} en échec (tentative {}), nouvel essai dans {} s", row.getId(), row.getRecipient(), attempts, delay / 1000);
+    }
+
+    private static SimpleMailMessage toMessage(EmailOutbox row) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(row.getRecipient());
+        message.setSubject(row.getSubject());
+        message.setText(row.getBody());
+        return message;
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
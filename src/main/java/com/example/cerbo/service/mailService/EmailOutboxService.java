@@ -0,0 +1,152 @@
+package com.example.cerbo.service.mailService;
+
+import com.example.cerbo.entity.EmailOutbox;
+import com.example.cerbo.entity.User;
+import com.example.cerbo.entity.enums.EmailDigestMode;
+import com.example.cerbo.entity.enums.OutboxStatus;
+import com.example.cerbo.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mise en file des emails : une ligne email_outbox écrite dans la transaction de l'appelant,
+ * envoyée plus tard par {@link EmailOutboxDispatcher}. Aucun appel SMTP sur le thread de la requête.
+ * Pour les utilisateurs en mode récapitulatif, les notifications sont mises de côté (DIGEST) jusqu'à la fin
+ * de leur fenêtre, puis regroupées en un seul email par {@link #composeDueDigests()}.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private static final String FOOTER = "\n\nCordialement,\nVotre application";
+    private static final DateTimeFormatter DIGEST_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final int dailyHour;
+    private final int batchSize;
+    private final int maxItemsPerDigest;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              @Value("${mail.digest.daily-hour:8}") int dailyHour,
+                              @Value("${mail.digest.batch-size:500}") int batchSize,
+                              @Value("${mail.digest.max-items:100}") int maxItemsPerDigest) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.dailyHour = dailyHour;
+        this.batchSize = batchSize;
+        this.maxItemsPerDigest = maxItemsPerDigest;
+    }
+
+    @Transactional
+    public EmailOutbox enqueue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        return emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .status(OutboxStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Email d'une notification, envoyé tout de suite ou réservé au prochain récapitulatif selon le choix de l'utilisateur.
+     */
+    @Transactional
+    public EmailOutbox enqueueNotification(User recipient, String title, String content) {
+        EmailDigestMode mode = recipient.getEmailDigestMode();
+        if (mode == null || mode == EmailDigestMode.IMMEDIATE) {
+            return enqueue(recipient.getEmail(), title, "Notification:\n\n" + content + FOOTER);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(recipient.getEmail())
+                .subject(title)
+                .body(content)
+                .status(OutboxStatus.DIGEST)
+                .nextAttemptAt(windowEnd(mode, now))
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Remplace les entrées DIGEST échues par un email PENDING par destinataire. Retourne le nombre d'emails créés.
+     */
+    @Transactional
+    public int composeDueDigests() {
+        List<EmailOutbox> due = emailOutboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByRecipientAscIdAsc(
+                OutboxStatus.DIGEST, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<EmailOutbox>> byRecipient = new LinkedHashMap<>();
+        for (EmailOutbox entry : due) {
+            byRecipient.computeIfAbsent(entry.getRecipient(), key -> new ArrayList<>()).add(entry);
+        }
+        // Page pleine : le dernier destinataire a peut-être d'autres entrées, il attendra le passage suivant
+        if (due.size() == batchSize && byRecipient.size() > 1) {
+            byRecipient.remove(due.get(due.size() - 1).getRecipient());
+        }
+
+        int composed = 0;
+        for (Map.Entry<String, List<EmailOutbox>> group : byRecipient.entrySet()) {
+            List<EmailOutbox> entries = group.getValue();
+            List<Long> ids = entries.stream().map(EmailOutbox::getId).toList();
+            if (emailOutboxRepository.deleteDigestEntries(ids) != ids.size()) {
+                // Déjà regroupées par une autre instance : on annule tout, le prochain passage reprendra
+                throw new IllegalStateException("Récapitulatif de " + group.getKey() + " traité en parallèle");
+            }
+            enqueue(group.getKey(), subject(entries), body(entries));
+            composed++;
+        }
+        log.info("Récapitulatifs : {} emails composés à partir de {} notifications", composed,
+                byRecipient.values().stream().mapToInt(List::size).sum());
+        return composed;
+    }
+
+    LocalDateTime windowEnd(EmailDigestMode mode, LocalDateTime now) {
+        if (mode == EmailDigestMode.HOURLY) {
+            return now.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        }
+        LocalDateTime today = now.truncatedTo(ChronoUnit.DAYS).withHour(dailyHour);
+        return today.isAfter(now) ? today : today.plusDays(1);
+    }
+
+    private static String subject(List<EmailOutbox> entries) {
+        return entries.size() == 1
+                ? entries.get(0).getSubject()
+                : "Récapitulatif : " + entries.size() + " nouvelles notifications";
+    }
+
+    private String body(List<EmailOutbox> entries) {
+        StringBuilder body = new StringBuilder("Vos notifications depuis le dernier récapitulatif :\n");
+        int shown = Math.min(entries.size(), maxItemsPerDigest);
+        for (EmailOutbox entry : entries.subList(0, shown)) {
+            body.append("\n- ");
+            if (entry.getCreatedAt() != null) {
+                body.append('[').append(DIGEST_TIME.format(entry.getCreatedAt())).append("] ");
+            }
+            if (entry.getSubject() != null) {
+                body.append(entry.getSubject()).append(" : ");
+            }
+            body.append(entry.getBody());
+        }
+        if (entries.size() > shown) {
+            body.append("\n\n... et ").append(entries.size() - shown).append(" autres notifications dans l'application.");
+        }
+        return body.append(FOOTER).toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.cerbo.service.notificationBus;
+
+import com.example.cerbo.entity.WsRelayMessage;
+import com.example.cerbo.repository.WsRelayMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Bus entre instances sans broker externe : après le commit de l'appelant, chaque message est écrit dans
+ * ws_relay_messages et remis aux sessions locales ; les autres instances relisent la table
+ * toutes les {@code websocket.relay.poll-ms} et remettent les messages aux utilisateurs connectés chez elles.
+ * La relecture recouvre {@code overlap-ms} pour ne pas perdre une ligne commitée en retard ; les ids déjà
+ * remis sont mémorisés pour ne rien envoyer deux fois.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.bus", havingValue = "db")
+@Slf4j
+public class DbPollingNotificationBus implements NotificationBus {
+
+    private static final int MAX_SEEN_IDS = 10_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final WsRelayMessageRepository wsRelayMessageRepository;
+    private final NotificationDelivery notificationDelivery;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long overlapMillis;
+    private final long retentionMillis;
+    private final Set<Long> seenIds = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_SEEN_IDS;
+        }
+    });
+    private LocalDateTime since = LocalDateTime.now();
+
+    public DbPollingNotificationBus(WsRelayMessageRepository wsRelayMessageRepository,
+                                    NotificationDelivery notificationDelivery,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${websocket.relay.batch-size:500}") int batchSize,
+                                    @Value("${websocket.relay.overlap-ms:5000}") long overlapMillis,
+                                    @Value("${websocket.relay.retention-ms:300000}") long retentionMillis) {
+        this.wsRelayMessageRepository = wsRelayMessageRepository;
+        this.notificationDelivery = notificationDelivery;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.overlapMillis = overlapMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    // Appelé après le commit de l'appelant : la ligne est écrite dans sa propre transaction
+    @Override
+    public void publishNow(Long userId, String email, Object payload) {
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            transactionTemplate.executeWithoutResult(status -> wsRelayMessageRepository.save(WsRelayMessage.builder()
+                    .originNode(nodeId)
+                    .userId(userId)
+                    .email(email)
+                    .payload(json)
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        } catch (JsonProcessingException e) {
+            log.warn("Message temps réel non sérialisable pour l'utilisateur {}", userId, e);
+        } catch (RuntimeException e) {
+            log.warn("Relais WebSocket : écriture dans ws_relay_messages impossible", e);
+        }
+        notificationDelivery.deliver(userId, email, payload);
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.relay.poll-ms:500}")
+    public synchronized void poll() {
+        try {
+            LocalDateTime from = since.minusNanos(overlapMillis * 1_000_000);
+            List<WsRelayMessage> messages = wsRelayMessageRepository.findRecentFromOtherNodes(from, nodeId,
+                    PageRequest.of(0, batchSize));
+            for (WsRelayMessage message : messages) {
+                if (message.getCreatedAt().isAfter(since)) {
+                    since = message.getCreatedAt();
+                }
+                if (!seenIds.add(message.getId())) {
+                    continue;
+                }
+                notificationDelivery.deliver(message.getUserId(), message.getEmail(),
+                        objectMapper.readValue(message.getPayload(), Map.class));
+            }
+        } catch (Exception e) {
+            log.warn("Relais WebSocket : lecture de ws_relay_messages en échec", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.relay.purge-interval-ms:60000}")
+    public void purge() {
+        wsRelayMessageRepository.deleteOlderThan(LocalDateTime.now().minusNanos(retentionMillis * 1_000_000));
+    }
+}
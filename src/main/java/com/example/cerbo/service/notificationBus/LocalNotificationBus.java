@@ -0,0 +1,22 @@
+package com.example.cerbo.service.notificationBus;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remise directe aux sessions de cette instance. Suffisant avec une seule instance, ou derrière un broker
+ * STOMP externe ({@code websocket.broker.mode=relay}) qui se charge lui-même de la diffusion entre instances.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.bus", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalNotificationBus implements NotificationBus {
+
+    private final NotificationDelivery notificationDelivery;
+
+    @Override
+    public void publishNow(Long userId, String email, Object payload) {
+        notificationDelivery.deliver(userId, email, payload);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.cerbo.service.notificationBus;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Diffusion temps réel des messages destinés à un utilisateur (notifications, compteur de non lues).
+ * Implémentation choisie par {@code websocket.bus} : {@code local} (une seule instance, ou broker STOMP externe)
+ * ou {@code db} (relais entre instances par une table interrogée périodiquement).
+ */
+public interface NotificationBus {
+
+    /**
+     * Envoie le message après le commit de la transaction courante (immédiatement hors transaction).
+     */
+    default void publish(Long userId, String email, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishNow(userId, email, payload);
+                }
+            });
+        } else {
+            publishNow(userId, email, payload);
+        }
+    }
+
+    /**
+     * Envoie le message tout de suite ; à utiliser depuis un callback afterCommit.
+     */
+    void publishNow(Long userId, String email, Object payload);
+}
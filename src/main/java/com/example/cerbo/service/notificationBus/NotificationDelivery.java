@@ -0,0 +1,124 @@
+package com.example.cerbo.service.notificationBus;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remise des messages aux sessions WebSocket de cette instance, sur /user/queue/notifications
+ * (et sur l'ancien /topic/notifications/{userId} tant que {@code websocket.legacy-topic.enabled} est vrai).
+ * Les messages d'un même utilisateur sont regroupés pendant {@code websocket.coalesce-ms} : plusieurs
+ * compteurs de non lues consécutifs n'en font qu'un (dernière valeur, deltas additionnés).
+ */
+@Component
+@Slf4j
+public class NotificationDelivery {
+
+    public static final String USER_DESTINATION = "/queue/notifications";
+    public static final String LEGACY_TOPIC = "/topic/notifications/";
+
+    private record Target(Long userId, String email) {}
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final boolean legacyTopic;
+    private final long coalesceMillis;
+    private final Map<Target, List<Object>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public NotificationDelivery(SimpMessagingTemplate messagingTemplate,
+                                SimpUserRegistry simpUserRegistry,
+                                @Value("${websocket.legacy-topic.enabled:true}") boolean legacyTopic,
+                                @Value("${websocket.coalesce-ms:100}") long coalesceMillis) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.legacyTopic = legacyTopic;
+        this.coalesceMillis = coalesceMillis;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-notification-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void deliver(Long userId, String email, Object payload) {
+        Target target = new Target(userId, email);
+        if (coalesceMillis <= 0) {
+            send(target, payload);
+            return;
+        }
+
+        boolean[] first = {false};
+        pending.compute(target, (key, messages) -> {
+            if (messages == null) {
+                messages = new ArrayList<>();
+                first[0] = true;
+            }
+            merge(messages, payload);
+            return messages;
+        });
+        if (first[0]) {
+            flusher.schedule(() -> flush(target), coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        pending.keySet().forEach(this::flush);
+    }
+
+    private void flush(Target target) {
+        List<Object> messages = pending.remove(target);
+        if (messages != null) {
+            messages.forEach(message -> send(target, message));
+        }
+    }
+
+    private void send(Target target, Object payload) {
+        try {
+            // Utilisateur connecté à une autre instance (ou pas connecté) : rien à faire ici
+            if (target.email() != null && simpUserRegistry.getUser(target.email()) != null) {
+                messagingTemplate.convertAndSendToUser(target.email(), USER_DESTINATION, payload);
+            }
+            if (legacyTopic && target.userId() != null) {
+                messagingTemplate.convertAndSend(LEGACY_TOPIC + target.userId(), payload);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Envoi WebSocket à l'utilisateur {} impossible", target.userId(), e);
+        }
+    }
+
+    // Deux compteurs de non lues successifs : on garde la dernière valeur et la somme des deltas
+    @SuppressWarnings("unchecked")
+    private static void merge(List<Object> messages, Object payload) {
+        if (!messages.isEmpty() && isUnreadCount(payload) && isUnreadCount(messages.get(messages.size() - 1))) {
+            Map<String, Object> previous = (Map<String, Object>) messages.get(messages.size() - 1);
+            Map<String, Object> merged = new LinkedHashMap<>((Map<String, Object>) payload);
+            merged.put("delta", toInt(previous.get("delta")) + toInt(merged.get("delta")));
+            messages.set(messages.size() - 1, merged);
+            return;
+        }
+        messages.add(payload);
+    }
+
+    private static boolean isUnreadCount(Object payload) {
+        return payload instanceof Map<?, ?> map && "UNREAD_COUNT".equals(map.get("type"));
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+}
@@ -11,6 +11,8 @@ import com.example.cerbo.repository.ProjectRepository;
 import com.example.cerbo.repository.ReportRepository;
 import com.example.cerbo.service.NotificationService;
 import com.example.cerbo.service.chatGptService.ChatGptService;
+import com.example.cerbo.service.storageService.StorageArea;
+import com.example.cerbo.service.storageService.StorageResolver;
 import com.itextpdf.forms.PdfAcroForm;
 import com.itextpdf.forms.fields.PdfFormField;
 
@@ -43,6 +45,7 @@ public class ReportService {
     private final ProjectRepository projectRepository;
     private final NotificationService notificationService;
     private final ChatGptService chatGptService;
+    private final StorageResolver storageResolver;
 
     @Transactional
     public Report createReport(Long projectId, List<Long> reviewIds) {
@@ -138,14 +141,8 @@ public class ReportService {
     public Path generateReportPdf(Report report) throws Exception {
 
         String fileName = "rapport_" + report.getId() + ".pdf";
-        Path folder = Path.of("uploads/reports");
-
-        if (!Files.exists(folder)) {
-            Files.createDirectories(folder);
-        }
-
         Path templatePath = Path.of("src/main/resources/template/Rapport_template.pdf"); // modèle à préparer
-        Path outputPath = folder.resolve(fileName);
+        Path outputPath = storageResolver.resolveForWrite(StorageArea.REPORTS, fileName);
 
         try(
                 PdfReader reader = new PdfReader(templatePath.toFile());
@@ -0,0 +1,180 @@
+package com.example.cerbo.service.searchService;
+
+import com.example.cerbo.entity.enums.ProjectStatus;
+import com.example.cerbo.repository.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire des projets (référence, titre, investigateur principal, description),
+ * construit au démarrage depuis la table projects puis mis à jour après commit.
+ * Remplace les LIKE '%x%' : une recherche renvoie les ids classés par pertinence, hydratés ensuite en une requête.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProjectSearchIndex {
+
+    private static final int WEIGHT_REFERENCE = 5;
+    private static final int WEIGHT_TITLE = 3;
+    private static final int WEIGHT_INVESTIGATOR = 2;
+    private static final int WEIGHT_DESCRIPTION = 1;
+
+    private final ProjectRepository projectRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // terme -> (projectId -> poids) ; trié pour la recherche par préfixe
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedProject> projects = new HashMap<>();
+    private volatile boolean ready = false;
+
+    private record IndexedProject(ProjectStatus status, Set<String> terms) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Object[]> rows = projectRepository.findSearchDocuments();
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                projects.clear();
+                rows.forEach(this::addRow);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("Index de recherche des projets construit : {} projets, {} termes", projects.size(), postings.size());
+        } catch (Exception e) {
+            log.error("Construction de l'index de recherche impossible, repli sur la recherche SQL", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Vrai si la requête contient au moins un terme indexable (sinon : recherche SQL).
+     */
+    public boolean canSearch(String query) {
+        return !TextFolding.tokenize(query).isEmpty();
+    }
+
+    /**
+     * (Ré)indexe un projet après le commit de la transaction courante (immédiatement s'il n'y en a pas).
+     * Un projet supprimé entre-temps est retiré de l'index.
+     */
+    public void indexAfterCommit(Long projectId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reindex(projectId);
+                }
+            });
+        } else {
+            reindex(projectId);
+        }
+    }
+
+    public void reindex(Long projectId) {
+        try {
+            List<Object[]> rows = projectRepository.findSearchDocument(projectId);
+            lock.writeLock().lock();
+            try {
+                remove(projectId);
+                rows.forEach(this::addRow);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.error("Réindexation du projet {} impossible", projectId, e);
+        }
+    }
+
+    /**
+     * Ids des projets contenant tous les termes de la requête (par préfixe), du plus pertinent au moins pertinent.
+     */
+    public List<Long> search(String query, ProjectStatus status) {
+        List<String> tokens = TextFolding.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String token : new LinkedHashSet<>(tokens)) {
+                Map<Long, Integer> tokenScores = new HashMap<>();
+                for (Map<Long, Integer> posting : postings.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                    posting.forEach((id, weight) -> tokenScores.merge(id, weight, Math::max));
+                }
+
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            Map<Long, Integer> finalScores = scores;
+            return finalScores.keySet().stream()
+                    .filter(id -> status == null || projects.get(id).status() == status)
+                    .sorted(Comparator.<Long>comparingInt(finalScores::get).reversed()
+                            .thenComparing(Comparator.reverseOrder()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // [id, status, reference, title, projectDescription, nom, prenom, email]
+    private void addRow(Object[] row) {
+        Long id = (Long) row[0];
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, (String) row[2], WEIGHT_REFERENCE);
+        addField(weights, (String) row[3], WEIGHT_TITLE);
+        addField(weights, (String) row[4], WEIGHT_DESCRIPTION);
+        addField(weights, (String) row[5], WEIGHT_INVESTIGATOR);
+        addField(weights, (String) row[6], WEIGHT_INVESTIGATOR);
+        addField(weights, (String) row[7], WEIGHT_INVESTIGATOR);
+
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, weight));
+        projects.put(id, new IndexedProject((ProjectStatus) row[1], weights.keySet()));
+    }
+
+    private void addField(Map<String, Integer> weights, String text, int weight) {
+        TextFolding.tokenize(text).forEach(term -> weights.merge(term, weight, Math::max));
+    }
+
+    private void remove(Long projectId) {
+        IndexedProject previous = projects.remove(projectId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(projectId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.cerbo.service.searchService;
+
+import com.example.cerbo.entity.Project;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retire de l'index de recherche les projets supprimés (y compris par cascade), après commit.
+ * ObjectProvider : l'index dépend du ProjectRepository, donc de l'EntityManagerFactory qui crée ce listener.
+ */
+@Component
+public class ProjectSearchIndexListener {
+
+    private final ObjectProvider<ProjectSearchIndex> projectSearchIndex;
+
+    public ProjectSearchIndexListener(ObjectProvider<ProjectSearchIndex> projectSearchIndex) {
+        this.projectSearchIndex = projectSearchIndex;
+    }
+
+    @PostRemove
+    public void onRemove(Project project) {
+        ProjectSearchIndex index = projectSearchIndex.getIfAvailable();
+        if (index != null && project.getId() != null) {
+            index.indexAfterCommit(project.getId());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.cerbo.service.searchService;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation des textes indexés et des requêtes : accents français, diacritiques et variantes
+ * de translittération arabe (Mohammed / Mohamed, ʿAli / Ali), et lettres arabes équivalentes.
+ */
+final class TextFolding {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TRANSLITERATION_SIGNS = Pattern.compile("[ʿʾʻʼ]");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private TextFolding() {
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String raw : SEPARATORS.split(fold(text))) {
+            if (raw.length() > 1 || (!raw.isEmpty() && Character.isDigit(raw.charAt(0)))) {
+                tokens.add(collapseRepeats(raw));
+            }
+        }
+        return tokens;
+    }
+
+    private static String fold(String text) {
+        String folded = text.toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae")
+                // Variantes de lettres arabes
+                .replace('أ', 'ا').replace('إ', 'ا').replace('آ', 'ا')
+                .replace('ة', 'ه')
+                .replace('ى', 'ي');
+        folded = Normalizer.normalize(folded, Normalizer.Form.NFD);
+        folded = MARKS.matcher(folded).replaceAll("");
+        return TRANSLITERATION_SIGNS.matcher(folded).replaceAll("");
+    }
+
+    // "mohammed" -> "mohamed", "hassan" -> "hasan"
+    private static String collapseRepeats(String token) {
+        StringBuilder sb = new StringBuilder(token.length());
+        char previous = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c != previous || Character.isDigit(c)) {
+                sb.append(c);
+            }
+            previous = c;
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.cerbo.service.storageService;
+
+import com.example.cerbo.entity.Document;
+import com.example.cerbo.service.FileStorageService;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Libère le fichier d'un document supprimé, y compris par cascade (projet, formation, article, événement),
+ * une fois la suppression validée.
+ * ObjectProvider : le service dépend du FileBlobRepository, donc de l'EntityManagerFactory qui crée ce listener.
+ */
+@Component
+public class DocumentFileListener {
+
+    private final ObjectProvider<FileStorageService> fileStorageService;
+
+    public DocumentFileListener(ObjectProvider<FileStorageService> fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    @PostRemove
+    public void onRemove(Document document) {
+        FileStorageService storage = fileStorageService.getIfAvailable();
+        if (storage != null) {
+            storage.deleteFileAfterCommit(document.getPath());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.cerbo.service.storageService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.InvalidPathException;
+import java.util.*;
+
+/**
+ * Indique, pour un lot de noms de fichiers, lesquels sont encore référencés en base (ramasse-miettes).
+ * Colonnes contenant un nom seul : comparaison par IN. Colonnes contenant un chemin (complet ou non, selon
+ * l'époque d'écriture) : égalité ou suffixe "/nom", une requête par table et par lot.
+ */
+@Component
+@Transactional(readOnly = true)
+public class FileReferenceLookup {
+
+    // entité.attribut contenant seulement le nom du fichier
+    private static final List<String> NAME_COLUMNS = List.of(
+            "FileBlob.fileName", "Document.name", "Report.fileName");
+
+    // entité.attribut pouvant contenir un chemin
+    private static final List<String> PATH_COLUMNS = List.of(
+            "Document.path", "Report.filePath", "Project.avisFavorablePath", "ResourceDocument.path",
+            "User.photoUrl", "Event.filename", "Article.filename", "Remark.responseFilePath",
+            "DocumentReview.responseFilePath");
+
+    private final EntityManager entityManager;
+
+    public FileReferenceLookup(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Set<String> referencedAmong(Collection<String> names) {
+        Set<String> referenced = new HashSet<>();
+        if (names.isEmpty()) {
+            return referenced;
+        }
+        for (String column : NAME_COLUMNS) {
+            String[] parts = column.split("\\.");
+            // Un blob sans référence n'en protège pas le fichier
+            String extra = parts[0].equals("FileBlob") ? " AND x.refCount > 0" : "";
+            referenced.addAll(entityManager.createQuery(
+                            "SELECT x." + parts[1] + " FROM " + parts[0] + " x WHERE x." + parts[1] + " IN :names" + extra,
+                            String.class)
+                    .setParameter("names", names)
+                    .getResultList());
+        }
+
+        List<String> ordered = new ArrayList<>(names);
+        StringBuilder suffixes = new StringBuilder();
+        for (int i = 0; i < ordered.size(); i++) {
+            suffixes.append(" OR x.%1$s LIKE :s").append(i).append(" ESCAPE '!'");
+        }
+        for (String column : PATH_COLUMNS) {
+            String[] parts = column.split("\\.");
+            TypedQuery<String> query = entityManager.createQuery(
+                    ("SELECT x.%1$s FROM " + parts[0] + " x WHERE x.%1$s IN :names" + suffixes).formatted(parts[1]),
+                    String.class);
+            query.setParameter("names", names);
+            for (int i = 0; i < ordered.size(); i++) {
+                query.setParameter("s" + i, "%/" + escapeLike(ordered.get(i)));
+            }
+            for (String path : query.getResultList()) {
+                try {
+                    referenced.add(StorageResolver.fileName(path.trim()));
+                } catch (InvalidPathException e) {
+                    // valeur qui n'est pas un chemin (URL externe...)
+                }
+            }
+        }
+        referenced.retainAll(names);
+        return referenced;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.cerbo.service.storageService;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tous les fichiers directement dans le répertoire de la zone (comportement historique).
+ */
+@Component
+@ConditionalOnProperty(name = "storage.layout", havingValue = "flat", matchIfMissing = true)
+public class FlatStorageLayout implements StorageLayout {
+
+    @Override
+    public String relativePath(String fileName) {
+        return fileName;
+    }
+}
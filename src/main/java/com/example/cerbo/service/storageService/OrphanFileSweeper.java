@@ -0,0 +1,288 @@
+package com.example.cerbo.service.storageService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Ramasse-miettes des fichiers orphelins sous uploads/ (remplacements, soumissions échouées, projets supprimés).
+ * Chaque passage examine au plus {@code max-files-per-run} fichiers dans l'ordre du chemin, à partir du point
+ * de reprise enregistré dans uploads/.gc/checkpoint, et les vérifie en base par lots de {@code reference-batch-size}. Un fichier qu'aucune ligne ne référence et plus ancien que
+ * {@code min-age-ms} part en quarantaine (uploads/.quarantine/&lt;jour&gt;/...) ; il n'est supprimé qu'après
+ * {@code quarantine-days}, sauf s'il est de nouveau référencé entre-temps, auquel cas il est remis en place.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.gc.enabled", havingValue = "true")
+@Slf4j
+public class OrphanFileSweeper {
+
+    private final FileReferenceLookup fileReferenceLookup;
+    private final Path root;
+    private final Path checkpointFile;
+    private final Path quarantineRoot;
+    private final int maxFilesPerRun;
+    private final long minAgeMillis;
+    private final int quarantineDays;
+    private final int referenceBatchSize;
+    private final Counter reclaimedBytes;
+    private final Counter quarantinedFiles;
+
+    public OrphanFileSweeper(StorageResolver storageResolver,
+                             FileReferenceLookup fileReferenceLookup,
+                             MeterRegistry meterRegistry,
+                             @Value("${storage.gc.max-files-per-run:1000}") int maxFilesPerRun,
+                             @Value("${storage.gc.min-age-ms:86400000}") long minAgeMillis,
+                             @Value("${storage.gc.quarantine-days:7}") int quarantineDays,
+                             @Value("${storage.gc.reference-batch-size:200}") int referenceBatchSize) {
+        this.fileReferenceLookup = fileReferenceLookup;
+        this.root = storageResolver.root(StorageArea.UPLOADS);
+        this.checkpointFile = root.resolve(".gc").resolve("checkpoint");
+        this.quarantineRoot = root.resolve(".quarantine");
+        this.maxFilesPerRun = maxFilesPerRun;
+        this.minAgeMillis = minAgeMillis;
+        this.quarantineDays = quarantineDays;
+        this.referenceBatchSize = referenceBatchSize;
+        this.reclaimedBytes = Counter.builder("storage.gc.reclaimed")
+                .description("Octets libérés par la suppression des fichiers orphelins")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.quarantinedFiles = Counter.builder("storage.gc.quarantined")
+                .description("Fichiers orphelins mis en quarantaine")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms:600000}", initialDelayString = "${storage.gc.initial-delay-ms:300000}")
+    public void sweep() {
+        try {
+            purgeQuarantine();
+            sweepStep();
+        } catch (Exception e) {
+            log.error("Passage du ramasse-miettes des fichiers en échec", e);
+        }
+    }
+
+    void sweepStep() throws IOException {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        String checkpoint = readCheckpoint();
+        List<String> candidates = new ArrayList<>();
+        boolean finished = collect(root, "", checkpoint, candidates);
+
+        if (!candidates.isEmpty()) {
+            long cutoff = System.currentTimeMillis() - minAgeMillis;
+            String quarantineDay = LocalDate.now().toString();
+            int quarantined = 0;
+
+            for (int from = 0; from < candidates.size(); from += referenceBatchSize) {
+                List<String> batch = candidates.subList(from, Math.min(from + referenceBatchSize, candidates.size()));
+                // Vérifié juste avant le déplacement, lot par lot : une référence ajoutée entre-temps est vue
+                Set<String> referenced = fileReferenceLookup.referencedAmong(fileNames(batch));
+                for (String relative : batch) {
+                    Path file = root.resolve(relative);
+                    if (referenced.contains(file.getFileName().toString())) {
+                        continue;
+                    }
+                    try {
+                        if (Files.getLastModifiedTime(file).toMillis() > cutoff) {
+                            continue;
+                        }
+                        Path target = quarantineRoot.resolve(quarantineDay).resolve(relative);
+                        Files.createDirectories(target.getParent());
+                        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                        quarantined++;
+                    } catch (NoSuchFileException e) {
+                        // supprimé entre-temps
+                    }
+                }
+            }
+            quarantinedFiles.increment(quarantined);
+            log.info("Ramasse-miettes : {} fichiers examinés, {} mis en quarantaine", candidates.size(), quarantined);
+        }
+
+        writeCheckpoint(finished ? "" : candidates.get(candidates.size() - 1));
+    }
+
+    /**
+     * Parcours trié de l'arborescence à partir du point de reprise ; retourne true si l'arbre a été entièrement parcouru.
+     * Chaque répertoire est lu par pages : seules les entrées suivant le point de reprise sont retenues, et au plus
+     * autant qu'il reste de place dans le lot, jamais la liste complète triée.
+     */
+    private boolean collect(Path dir, String relative, String checkpoint, List<String> out) throws IOException {
+        // Nom à partir duquel reprendre à ce niveau, si le point de reprise passe par ce répertoire
+        String after = null;
+        boolean inclusive = false;
+        if (!checkpoint.isEmpty() && (relative.isEmpty() || checkpoint.startsWith(relative + "/"))) {
+            String rest = relative.isEmpty() ? checkpoint : checkpoint.substring(relative.length() + 1);
+            int slash = rest.indexOf('/');
+            after = slash < 0 ? rest : rest.substring(0, slash);
+            // Le répertoire du point de reprise n'est parcouru qu'en partie : on y redescend
+            inclusive = slash >= 0;
+        }
+
+        while (true) {
+            int limit = maxFilesPerRun - out.size();
+            TreeSet<String> page = new TreeSet<>();
+            boolean truncated = false;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path entry : stream) {
+                    String name = entry.getFileName().toString();
+                    if (name.startsWith(".") || (after != null && (inclusive ? name.compareTo(after) < 0
+                            : name.compareTo(after) <= 0))) {
+                        continue;
+                    }
+                    page.add(name);
+                    if (page.size() > limit) {
+                        page.pollLast();
+                        truncated = true;
+                    }
+                }
+            }
+
+            for (String name : page) {
+                Path entry = dir.resolve(name);
+                String child = relative.isEmpty() ? name : relative + "/" + name;
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    if (!collect(entry, child, checkpoint, out)) {
+                        return false;
+                    }
+                } else if (Files.isRegularFile(entry, LinkOption.NOFOLLOW_LINKS) && comparePaths(child, checkpoint) > 0) {
+                    out.add(child);
+                    if (out.size() >= maxFilesPerRun) {
+                        return false;
+                    }
+                }
+                after = name;
+                inclusive = false;
+            }
+            if (!truncated) {
+                return true;
+            }
+        }
+    }
+
+    // Comparaison composant par composant, cohérente avec le tri par nom à chaque niveau
+    private static int comparePaths(String a, String b) {
+        String[] left = a.isEmpty() ? new String[0] : a.split("/");
+        String[] right = b.isEmpty() ? new String[0] : b.split("/");
+        for (int i = 0; i < Math.min(left.length, right.length); i++) {
+            int cmp = left[i].compareTo(right[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+
+    void purgeQuarantine() throws IOException {
+        if (!Files.isDirectory(quarantineRoot)) {
+            return;
+        }
+        LocalDate limit = LocalDate.now().minusDays(quarantineDays);
+        List<Path> expiredDays;
+        try (Stream<Path> stream = Files.list(quarantineRoot)) {
+            expiredDays = stream.filter(day -> isBefore(day.getFileName().toString(), limit)).toList();
+        }
+        if (expiredDays.isEmpty()) {
+            return;
+        }
+
+        for (Path day : expiredDays) {
+            long freed = 0;
+            List<Path> batch = new ArrayList<>();
+            try (Stream<Path> stream = Files.walk(day)) {
+                Iterator<Path> files = stream.filter(Files::isRegularFile).iterator();
+                while (files.hasNext()) {
+                    batch.add(files.next());
+                    if (batch.size() >= referenceBatchSize || !files.hasNext()) {
+                        freed += purgeBatch(day, batch);
+                        batch.clear();
+                    }
+                }
+            }
+            deleteEmptyDirectories(day);
+            reclaimedBytes.increment(freed);
+            log.info("Quarantaine du {} purgée : {} octets libérés", day.getFileName(), freed);
+        }
+    }
+
+    private long purgeBatch(Path day, List<Path> files) throws IOException {
+        List<String> names = new ArrayList<>(files.size());
+        for (Path file : files) {
+            names.add(file.getFileName().toString());
+        }
+        Set<String> referenced = fileReferenceLookup.referencedAmong(names);
+        long freed = 0;
+        for (Path file : files) {
+            if (referenced.contains(file.getFileName().toString())) {
+                Path original = root.resolve(day.relativize(file).toString());
+                if (Files.exists(original)) {
+                    // Remplacé entre-temps par un nouvel envoi du même contenu
+                    Files.delete(file);
+                    continue;
+                }
+                Files.createDirectories(original.getParent());
+                Files.move(file, original, StandardCopyOption.ATOMIC_MOVE);
+                log.warn("Fichier {} de nouveau référencé : sorti de quarantaine", original);
+                continue;
+            }
+            long size = Files.size(file);
+            Files.delete(file);
+            freed += size;
+        }
+        return freed;
+    }
+
+    private static List<String> fileNames(List<String> relativePaths) {
+        List<String> names = new ArrayList<>(relativePaths.size());
+        for (String relative : relativePaths) {
+            int slash = relative.lastIndexOf('/');
+            names.add(slash < 0 ? relative : relative.substring(slash + 1));
+        }
+        return names;
+    }
+
+    private static boolean isBefore(String day, LocalDate limit) {
+        try {
+            return LocalDate.parse(day).isBefore(limit);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void deleteEmptyDirectories(Path dir) throws IOException {
+        List<Path> directories;
+        try (Stream<Path> stream = Files.walk(dir)) {
+            directories = stream.filter(Files::isDirectory).sorted(Comparator.reverseOrder()).toList();
+        }
+        for (Path directory : directories) {
+            try (Stream<Path> stream = Files.list(directory)) {
+                if (stream.findAny().isEmpty()) {
+                    Files.delete(directory);
+                }
+            }
+        }
+    }
+
+    private String readCheckpoint() throws IOException {
+        return Files.exists(checkpointFile) ? Files.readString(checkpointFile, StandardCharsets.UTF_8).trim() : "";
+    }
+
+    private void writeCheckpoint(String checkpoint) throws IOException {
+        Files.createDirectories(checkpointFile.getParent());
+        Path temp = checkpointFile.resolveSibling("checkpoint.tmp");
+        Files.writeString(temp, checkpoint, StandardCharsets.UTF_8);
+        Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
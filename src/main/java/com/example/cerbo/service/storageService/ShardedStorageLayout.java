@@ -0,0 +1,41 @@
+package com.example.cerbo.service.storageService;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Répartition sur deux niveaux de sous-répertoires (ab/cd/nom) pour garder des répertoires de petite taille.
+ * Les noms qui commencent déjà par de l'hexadécimal aléatoire (UUID, SHA-256 des blobs) utilisent ce préfixe,
+ * les autres (rapport_12.pdf...) le SHA-256 du nom.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.layout", havingValue = "sharded")
+public class ShardedStorageLayout implements StorageLayout {
+
+    @Override
+    public String relativePath(String fileName) {
+        String prefix = hexPrefix(fileName);
+        return prefix.substring(0, 2) + "/" + prefix.substring(2, 4) + "/" + fileName;
+    }
+
+    private static String hexPrefix(String fileName) {
+        if (fileName.length() >= 4) {
+            String head = fileName.substring(0, 4).toLowerCase(Locale.ROOT);
+            if (head.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+                return head;
+            }
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(fileName.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.cerbo.service.storageService;
+
+/**
+ * Répertoires de stockage sous la racine des uploads.
+ */
+public enum StorageArea {
+    UPLOADS(""),
+    REPORTS("reports"),
+    AVIS_FAVORABLE("avis_favorable"),
+    RESOURCES("resources");
+
+    private final String directory;
+
+    StorageArea(String directory) {
+        this.directory = directory;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.cerbo.service.storageService;
+
+/**
+ * Organisation des fichiers à l'intérieur d'une zone de stockage.
+ */
+public interface StorageLayout {
+
+    /**
+     * Chemin relatif (à la racine de la zone) du fichier {@code fileName}.
+     */
+    String relativePath(String fileName);
+}
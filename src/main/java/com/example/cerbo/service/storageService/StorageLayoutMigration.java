@@ -0,0 +1,138 @@
+package com.example.cerbo.service.storageService;
+
+import com.example.cerbo.repository.DocumentRepository;
+import com.example.cerbo.repository.ProjectRepository;
+import com.example.cerbo.repository.ReportRepository;
+import com.example.cerbo.repository.ResourceDocumentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migration en ligne des fichiers à plat vers le layout configuré, par lots : déplacement des fichiers puis
+ * réécriture des chemins complets stockés en base (documents, rapports, avis favorables, ressources).
+ * Pendant la migration, le StorageResolver retrouve encore les fichiers non déplacés ; l'application reste utilisable.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.layout.migrate-on-startup", havingValue = "true")
+@Slf4j
+public class StorageLayoutMigration {
+
+    private final StorageResolver storageResolver;
+    private final DocumentRepository documentRepository;
+    private final ReportRepository reportRepository;
+    private final ProjectRepository projectRepository;
+    private final ResourceDocumentRepository resourceDocumentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    public StorageLayoutMigration(StorageResolver storageResolver,
+                                  DocumentRepository documentRepository,
+                                  ReportRepository reportRepository,
+                                  ProjectRepository projectRepository,
+                                  ResourceDocumentRepository resourceDocumentRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${storage.layout.migration-batch-size:200}") int batchSize,
+                                  @Value("${storage.layout.migration-pause-ms:200}") long pauseMillis) {
+        this.storageResolver = storageResolver;
+        this.documentRepository = documentRepository;
+        this.reportRepository = reportRepository;
+        this.projectRepository = projectRepository;
+        this.resourceDocumentRepository = resourceDocumentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::migrateAll, "storage-layout-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void migrateAll() {
+        for (StorageArea area : StorageArea.values()) {
+            try {
+                int moved = migrateArea(area);
+                log.info("Migration du layout : {} fichiers déplacés dans {}", moved, storageResolver.root(area));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Migration du layout interrompue pour {}", area, e);
+            }
+        }
+    }
+
+    private int migrateArea(StorageArea area) throws IOException, InterruptedException {
+        Path root = storageResolver.root(area);
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        int moved = 0;
+        while (true) {
+            List<Path> batch = nextBatch(root);
+            if (batch.isEmpty()) {
+                return moved;
+            }
+
+            Map<String, Path> relocated = new LinkedHashMap<>();
+            for (Path file : batch) {
+                String fileName = file.getFileName().toString();
+                Path target = storageResolver.resolveForWrite(area, fileName);
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+                relocated.put(fileName, target);
+            }
+
+            transactionTemplate.executeWithoutResult(status ->
+                    relocated.forEach((fileName, target) -> rewritePaths(area, fileName, target.toString())));
+            moved += relocated.size();
+            Thread.sleep(pauseMillis);
+        }
+    }
+
+    // Fichiers encore à plat à la racine de la zone (hors fichiers temporaires et déjà au bon endroit)
+    private List<Path> nextBatch(Path root) throws IOException {
+        List<Path> batch = new ArrayList<>(batchSize);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                if (fileName.startsWith(".") || storageResolver.getLayout().relativePath(fileName).equals(fileName)) {
+                    continue;
+                }
+                batch.add(file);
+                if (batch.size() >= batchSize) {
+                    break;
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void rewritePaths(StorageArea area, String fileName, String newPath) {
+        String suffix = "%/" + fileName.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        switch (area) {
+            case UPLOADS -> documentRepository.relocatePath(fileName, newPath, suffix);
+            case REPORTS -> reportRepository.relocateFilePath(newPath, suffix);
+            case AVIS_FAVORABLE -> projectRepository.relocateAvisFavorablePath(newPath, suffix);
+            case RESOURCES -> resourceDocumentRepository.relocatePath(fileName, newPath, suffix);
+        }
+    }
+}
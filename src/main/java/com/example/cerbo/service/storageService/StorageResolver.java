@@ -0,0 +1,63 @@
+package com.example.cerbo.service.storageService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Point unique de résolution des fichiers sur disque, pour tous les services qui lisent ou écrivent des uploads.
+ * Accepte un nom de fichier ou un ancien chemin complet (seul le nom compte). Tant que la migration du
+ * layout n'est pas terminée, un fichier encore à plat est trouvé à son ancien emplacement.
+ */
+@Component
+public class StorageResolver {
+
+    private final Path root;
+    private final StorageLayout layout;
+
+    public StorageResolver(@Value("${storage.root:uploads}") String root, StorageLayout layout) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.layout = layout;
+    }
+
+    public Path root(StorageArea area) {
+        return area.getDirectory().isEmpty() ? root : root.resolve(area.getDirectory());
+    }
+
+    public StorageLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Emplacement pour lire ou supprimer un fichier existant.
+     */
+    public Path resolve(StorageArea area, String nameOrPath) {
+        String fileName = fileName(nameOrPath);
+        Path areaRoot = root(area);
+        Path path = areaRoot.resolve(layout.relativePath(fileName)).normalize();
+        if (!Files.exists(path)) {
+            Path flat = areaRoot.resolve(fileName).normalize();
+            if (Files.exists(flat)) {
+                return flat;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Emplacement où écrire un nouveau fichier ; crée les répertoires parents.
+     */
+    public Path resolveForWrite(StorageArea area, String fileName) throws IOException {
+        Path path = root(area).resolve(layout.relativePath(fileName(fileName))).normalize();
+        Files.createDirectories(path.getParent());
+        return path;
+    }
+
+    public static String fileName(String nameOrPath) {
+        return Paths.get(nameOrPath).getFileName().toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.cerbo.service.storageService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Résolution des URL publiques /uploads/&lt;nom&gt; et /uploads/&lt;zone&gt;/&lt;nom&gt; par {@link StorageResolver} :
+ * les fichiers restent servis à la même URL quel que soit le layout (à plat ou shardé, migration en cours comprise).
+ * Les répertoires techniques (.gc, .quarantine...) et les chemins de shards ne sont jamais exposés.
+ */
+@Component
+public class StorageResourceResolver extends AbstractResourceResolver {
+
+    private final StorageResolver storageResolver;
+
+    public StorageResourceResolver(StorageResolver storageResolver) {
+        this.storageResolver = storageResolver;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        Path path = locate(requestPath);
+        return path != null && Files.isRegularFile(path) ? new FileSystemResource(path) : null;
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return locate(resourceUrlPath) != null ? resourceUrlPath : null;
+    }
+
+    private Path locate(String requestPath) {
+        String[] segments = requestPath.split("/");
+        if (segments.length == 1 && isFileName(segments[0])) {
+            return storageResolver.resolve(StorageArea.UPLOADS, segments[0]);
+        }
+        if (segments.length == 2 && isFileName(segments[1])) {
+            for (StorageArea area : StorageArea.values()) {
+                if (!area.getDirectory().isEmpty() && area.getDirectory().equals(segments[0])) {
+                    return storageResolver.resolve(area, segments[1]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isFileName(String segment) {
+        return !segment.isEmpty() && !segment.startsWith(".") && segment.indexOf('\\') < 0;
+    }
+}
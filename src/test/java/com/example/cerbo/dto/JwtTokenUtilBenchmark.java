@@ -0,0 +1,71 @@
+package com.example.cerbo.dto;
+
+import com.example.cerbo.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark JMH de la vérification d'un access token par requête (hors surefire : lancer la méthode main).
+ * Compare l'ancien chemin du JwtTokenFilter (validateToken + getUsernameFromToken + getClaimsFromToken, soit trois
+ * parsers construits et trois vérifications de signature) et {@link JwtTokenUtil#parseAccessToken} :
+ * temps par requête et, avec le profileur GC, octets alloués par requête (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+    private JwtTokenUtil jwtTokenUtil;
+    private SecretKey key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        String secret = "x".repeat(64);
+        jwtTokenUtil = new JwtTokenUtil(secret, secret.replace('x', 'y'), 3_600_000, 86_400_000);
+        key = jwtTokenUtil.getAccessTokenSecretKey();
+
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("investigateur@example.com");
+        user.setRoles(Set.of("ADMIN", "INVESTIGATEUR"));
+        token = jwtTokenUtil.generateAccessToken(user);
+    }
+
+    // Chemin d'origine : un parser construit et une signature vérifiée à chaque appel
+    @Benchmark
+    public void threeParsers(Blackhole blackhole) {
+        blackhole.consume(Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody());
+        blackhole.consume(Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject());
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        blackhole.consume(claims.get("roles", List.class));
+    }
+
+    @Benchmark
+    public void parseAccessToken(Blackhole blackhole) {
+        JwtClaims claims = jwtTokenUtil.parseAccessToken(token);
+        blackhole.consume(claims.getSubject());
+        blackhole.consume(claims.getRoles());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenUtilBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
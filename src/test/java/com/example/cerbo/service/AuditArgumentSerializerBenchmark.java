@@ -0,0 +1,107 @@
+package com.example.cerbo.service;
+
+import com.example.cerbo.dto.ProjectSubmissionDTO;
+import com.example.cerbo.entity.Project;
+import com.example.cerbo.entity.User;
+import com.example.cerbo.service.auditService.AuditArgumentSerializer;
+import org.hibernate.collection.spi.PersistentBag;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Micro-benchmark JMH de la sérialisation des arguments d'audit (hors surefire : lancer la méthode main).
+ * Compare l'ancien toString() joint par ", " et {@link AuditArgumentSerializer} sur des formes
+ * d'arguments représentatives : temps par appel et, avec le profileur GC, octets alloués par appel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditArgumentSerializerBenchmark {
+
+    @Param({"ids", "credentials", "entity", "lazy-collection", "large-string", "dto+file"})
+    public String shape;
+
+    private final AuditArgumentSerializer serializer = new AuditArgumentSerializer(255, 64);
+    private String[] names;
+    private Object[] args;
+
+    @Setup
+    public void setUp() {
+        Project project = new Project();
+        project.setId(42L);
+        project.setTitle("Étude observationnelle multicentrique");
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("investigateur@example.com");
+
+        ProjectSubmissionDTO submission = new ProjectSubmissionDTO();
+        submission.setTitle("Étude observationnelle multicentrique");
+        submission.setDataDescription("x".repeat(2_000));
+        submission.setInvestigatorIds(new HashSet<>(List.of(1L, 2L, 3L)));
+        submission.setInfoSheetFr(new MockMultipartFile("infoSheetFr", "fiche_fr.pdf", "application/pdf", new byte[4096]));
+
+        switch (shape) {
+            case "ids" -> {
+                names = new String[]{"id", "status", "comment"};
+                args = new Object[]{42L, "APPROUVE", "Commentaire court"};
+            }
+            case "credentials" -> {
+                names = new String[]{"email", "password"};
+                args = new Object[]{"admin@example.com", "motDePasse123"};
+            }
+            case "entity" -> {
+                names = new String[]{"project", "user"};
+                args = new Object[]{project, user};
+            }
+            case "lazy-collection" -> {
+                names = new String[]{"projectId", "reviewers"};
+                args = new Object[]{42L, new PersistentBag<>()};
+            }
+            case "large-string" -> {
+                names = new String[]{"content"};
+                args = new Object[]{"y".repeat(50_000)};
+            }
+            case "dto+file" -> {
+                names = new String[]{"submissionDTO"};
+                args = new Object[]{submission};
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+    }
+
+    @Benchmark
+    public void toStringJoin(Blackhole blackhole) {
+        try {
+            blackhole.consume(Arrays.stream(args)
+                    .map(arg -> arg instanceof Collection<?> c ? "collection(size=" + c.size() + ")" : String.valueOf(arg))
+                    .collect(Collectors.joining(", ")));
+        } catch (RuntimeException e) {
+            // L'ancien toString() échoue sur une collection Hibernate sans session
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void bounded(Blackhole blackhole) {
+        blackhole.consume(serializer.serialize(names, args));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuditArgumentSerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.cerbo.service;
+
+import com.example.cerbo.dto.ProjectListItemDTO;
+import com.example.cerbo.entity.Project;
+import com.example.cerbo.entity.User;
+import com.example.cerbo.entity.enums.ProjectStatus;
+import com.example.cerbo.repository.AuditLogRepository;
+import com.example.cerbo.security.ProjectMembershipCache;
+import com.example.cerbo.service.searchService.ProjectSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import({ProjectService.class, ProjectMembershipCache.class, ProjectSearchIndex.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cerbo;MODE=MySQL;NON_KEYWORDS=USER,YEAR,MONTH,VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProjectListQueryTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectSearchIndex projectSearchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private FileStorageService fileStorageService;
+
+    @MockitoBean
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private AuditLogRepository auditLogRepository;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void projectListRunsConstantNumberOfStatements() {
+        User investigator = new User();
+        investigator.setEmail("pi@example.com");
+        investigator.setNom("Alaoui");
+        investigator.setPrenom("Sara");
+        investigator.setRoles(Set.of("INVESTIGATEUR"));
+        entityManager.persist(investigator);
+
+        for (int i = 0; i < 8; i++) {
+            Project project = Project.builder()
+                    .title("Projet " + i)
+                    .dataDescription("data")
+                    .status(ProjectStatus.SOUMIS)
+                    .submissionDate(LocalDateTime.now().minusDays(i))
+                    .principalInvestigator(investigator)
+                    .coInvestigators(List.of(
+                            Project.CoInvestigator.builder().name("A" + i).surname("B").email("a" + i + "@x.ma").build(),
+                            Project.CoInvestigator.builder().name("C" + i).surname("D").email("c" + i + "@x.ma").build()))
+                    .build();
+            entityManager.persist(project);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<ProjectListItemDTO> page = projectService.findProjectListPage(
+                null, null, PageRequest.of(0, 5, Sort.by("submissionDate").descending()));
+
+        assertEquals(5, page.getContent().size());
+        assertEquals(8, page.getTotalElements());
+        page.getContent().forEach(item -> assertEquals(2, item.getCoInvestigators().size()));
+        // projection + count + co-investigateurs de la page
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void searchIndexFoldsAccentsAndTransliterationsAndRanksByField() {
+        User investigator = new User();
+        investigator.setEmail("m.elalami@example.com");
+        investigator.setNom("El Alami");
+        investigator.setPrenom("Mohammed");
+        investigator.setRoles(Set.of("INVESTIGATEUR"));
+        entityManager.persist(investigator);
+
+        Project inTitle = Project.builder()
+                .title("Étude génétique des maladies rares")
+                .dataDescription("data")
+                .status(ProjectStatus.SOUMIS)
+                .submissionDate(LocalDateTime.now())
+                .principalInvestigator(investigator)
+                .build();
+        Project inDescription = Project.builder()
+                .title("Cohorte pédiatrique")
+                .dataDescription("data")
+                .projectDescription("Volet génétique secondaire")
+                .status(ProjectStatus.SOUMIS)
+                .submissionDate(LocalDateTime.now())
+                .principalInvestigator(investigator)
+                .build();
+        entityManager.persist(inTitle);
+        entityManager.persist(inDescription);
+        entityManager.flush();
+        entityManager.clear();
+
+        projectSearchIndex.rebuild();
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId()), projectSearchIndex.search("genetique", null));
+        assertEquals(List.of(inTitle.getId()), projectSearchIndex.search("genet rares", null));
+        assertEquals(2, projectSearchIndex.search("Mohamed", null).size());
+        assertEquals(0, projectSearchIndex.search("genetique", ProjectStatus.APPROUVE).size());
+
+        Page<ProjectListItemDTO> page = projectService.findProjectListPage(null, "pédiatrique", PageRequest.of(0, 10));
+        assertEquals(1, page.getTotalElements());
+        assertEquals(inDescription.getId(), page.getContent().get(0).getId());
+
+        // Une seule lettre : pas de terme indexable, repli sur le LIKE (ici l'email des deux projets)
+        assertEquals(2, projectService.findProjectListPage(null, "x", PageRequest.of(0, 10)).getTotalElements());
+    }
+}
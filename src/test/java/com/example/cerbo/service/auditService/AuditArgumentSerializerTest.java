@@ -0,0 +1,123 @@
+package com.example.cerbo.service.auditService;
+
+import com.example.cerbo.entity.Project;
+import org.hibernate.collection.spi.PersistentBag;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditArgumentSerializerTest {
+
+    private final AuditArgumentSerializer serializer = new AuditArgumentSerializer(20, 8);
+
+    record Credentials(String email, String password) {
+    }
+
+    @Test
+    void textExactlyAtTheByteCapIsKeptWhole() {
+        AuditArgumentSerializer wide = new AuditArgumentSerializer(20, 64);
+
+        // "a=" + 18 caractères = 20 octets
+        assertEquals("a=" + "x".repeat(18), wide.serialize(new String[]{"a"}, new Object[]{"x".repeat(18)}));
+    }
+
+    @Test
+    void longStringsAreCutToMaxStringLengthWithTheirLength() {
+        assertEquals("a=xxxxxxxx...(18)", serializer.serialize(new String[]{"a"}, new Object[]{"x".repeat(18)}));
+    }
+
+    @Test
+    void textOneByteOverTheCapEndsWithEllipsisWithinTheCap() {
+        AuditArgumentSerializer wide = new AuditArgumentSerializer(20, 64);
+
+        String result = wide.serialize(new String[]{"a"}, new Object[]{"x".repeat(19)});
+
+        assertEquals("a=" + "x".repeat(15) + "...", result);
+        assertEquals(20, utf8Length(result));
+    }
+
+    @Test
+    void multibyteCharactersAreCountedInUtf8Bytes() {
+        AuditArgumentSerializer wide = new AuditArgumentSerializer(20, 64);
+
+        String twoBytes = wide.truncate("é".repeat(20));
+        String threeBytes = wide.truncate("€".repeat(20));
+
+        assertTrue(twoBytes.endsWith("..."));
+        assertTrue(utf8Length(twoBytes) <= 20);
+        assertEquals("é".repeat(8) + "...", twoBytes);
+        assertTrue(utf8Length(threeBytes) <= 20);
+        assertEquals("€".repeat(5) + "...", threeBytes);
+        assertEquals("€".repeat(6), wide.truncate("€".repeat(6)));
+    }
+
+    @Test
+    void surrogatePairsAreNeverSplit() {
+        AuditArgumentSerializer wide = new AuditArgumentSerializer(20, 64);
+
+        for (int prefix = 0; prefix < 4; prefix++) {
+            String result = wide.truncate("a".repeat(prefix) + "😀".repeat(10));
+
+            assertTrue(utf8Length(result) <= 20, result);
+            assertTrue(result.endsWith("..."), result);
+            for (int i = 0; i < result.length(); i++) {
+                char c = result.charAt(i);
+                if (Character.isHighSurrogate(c)) {
+                    assertTrue(i + 1 < result.length() && Character.isLowSurrogate(result.charAt(++i)), result);
+                } else {
+                    assertFalse(Character.isLowSurrogate(c), result);
+                }
+            }
+        }
+    }
+
+    @Test
+    void secretsAreMaskedByArgumentAndFieldName() {
+        AuditArgumentSerializer wide = new AuditArgumentSerializer(255, 64);
+
+        assertEquals("email=a@b.c, password=***",
+                wide.serialize(new String[]{"email", "password"}, new Object[]{"a@b.c", "motDePasse123"}));
+        assertEquals("refreshToken=***, code=***, password=null",
+                wide.serialize(new String[]{"refreshToken", "code", "password"}, new Object[]{"t", "123456", null}));
+        assertEquals("c=Credentials{email=a@b.c, password=***}",
+                wide.serialize(new String[]{"c"}, new Object[]{new Credentials("a@b.c", "secret")}));
+    }
+
+    @Test
+    void entitiesAndLazyProxiesAreReducedToTypeAndIdWithoutInitialization() {
+        AuditArgumentSerializer wide = new AuditArgumentSerializer(255, 64);
+        Project project = new Project();
+        project.setId(42L);
+        LazyInitializer initializer = Mockito.mock(LazyInitializer.class);
+        Mockito.when(initializer.getPersistentClass()).thenReturn((Class) Project.class);
+        Mockito.when(initializer.getIdentifier()).thenReturn(7L);
+        HibernateProxy proxy = Mockito.mock(HibernateProxy.class);
+        Mockito.when(proxy.getHibernateLazyInitializer()).thenReturn(initializer);
+
+        assertEquals("project=Project#42, proxy=Project#7",
+                wide.serialize(new String[]{"project", "proxy"}, new Object[]{project, proxy}));
+        Mockito.verify(initializer, Mockito.never()).getImplementation();
+        Mockito.verify(initializer, Mockito.never()).initialize();
+    }
+
+    @Test
+    void lazyCollectionsAreNotLoaded() {
+        AuditArgumentSerializer wide = new AuditArgumentSerializer(255, 64);
+
+        // Sans session : size() lèverait LazyInitializationException
+        assertEquals("reviewers=collection(lazy), ids=collection(size=3)",
+                wide.serialize(new String[]{"reviewers", "ids"}, new Object[]{new PersistentBag<>(), List.of(1L, 2L, 3L)}));
+    }
+
+    private static int utf8Length(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.cerbo.service.storageService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrphanFileSweeperTest {
+
+    private static final List<String> TREE = List.of(
+            "a.pdf", "ab/cd/1.pdf", "ab/cd/2.pdf", "ab/cd/3.pdf", "ab/cd/4.pdf", "ab/ef/5.pdf", "b.pdf", "zz/6.pdf");
+
+    @TempDir
+    Path root;
+
+    private final FileReferenceLookup lookup = Mockito.mock(FileReferenceLookup.class);
+    private final Set<String> referenced = new HashSet<>();
+    private final List<String> examined = new ArrayList<>();
+
+    @BeforeEach
+    void stubLookup() {
+        Mockito.when(lookup.referencedAmong(Mockito.anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            examined.addAll(names);
+            return names.stream().filter(referenced::contains).collect(Collectors.toSet());
+        });
+    }
+
+    @Test
+    void runsResumeFromTheCheckpointThroughPartialAndNestedDirectories() throws IOException {
+        for (String file : TREE) {
+            write(file);
+            referenced.add(Path.of(file).getFileName().toString());
+        }
+        write(".gc/ignored");
+        OrphanFileSweeper sweeper = sweeper(3, 7);
+
+        List<List<String>> runs = new ArrayList<>();
+        for (int run = 0; run < 3; run++) {
+            examined.clear();
+            sweeper.sweepStep();
+            runs.add(List.copyOf(examined));
+        }
+
+        // Arrêt au milieu de ab/cd, reprise dans ab/cd puis ab/ef, fin de l'arbre puis retour au début
+        assertEquals(List.of("a.pdf", "1.pdf", "2.pdf"), runs.get(0));
+        assertEquals(List.of("3.pdf", "4.pdf", "5.pdf"), runs.get(1));
+        assertEquals(List.of("b.pdf", "6.pdf"), runs.get(2));
+        assertEquals("", Files.readString(root.resolve(".gc/checkpoint")));
+
+        examined.clear();
+        sweeper.sweepStep();
+        assertEquals(List.of("a.pdf", "1.pdf", "2.pdf"), examined);
+    }
+
+    @Test
+    void checkpointOnAFileThatNoLongerExistsResumesAfterIt() throws IOException {
+        for (String file : TREE) {
+            write(file);
+            referenced.add(Path.of(file).getFileName().toString());
+        }
+        OrphanFileSweeper sweeper = sweeper(3, 7);
+        sweeper.sweepStep();
+        assertEquals("ab/cd/2.pdf", Files.readString(root.resolve(".gc/checkpoint")));
+
+        Files.delete(root.resolve("ab/cd/2.pdf"));
+        examined.clear();
+        sweeper.sweepStep();
+
+        assertEquals(List.of("3.pdf", "4.pdf", "5.pdf"), examined);
+    }
+
+    @Test
+    void unreferencedFilesAreQuarantinedAndRestoredWhenReferencedAgain() throws IOException {
+        write("ab/cd/orphan.pdf");
+        write("ab/cd/kept.pdf");
+        write("gone.pdf");
+        referenced.add("kept.pdf");
+        String today = LocalDate.now().toString();
+
+        // quarantine-days = -1 : la quarantaine du jour est déjà échue
+        OrphanFileSweeper sweeper = sweeper(100, -1);
+        sweeper.sweepStep();
+
+        assertTrue(Files.exists(root.resolve("ab/cd/kept.pdf")));
+        assertFalse(Files.exists(root.resolve("ab/cd/orphan.pdf")));
+        assertTrue(Files.exists(root.resolve(".quarantine/" + today + "/ab/cd/orphan.pdf")));
+        assertTrue(Files.exists(root.resolve(".quarantine/" + today + "/gone.pdf")));
+
+        referenced.add("orphan.pdf");
+        sweeper.purgeQuarantine();
+
+        assertTrue(Files.exists(root.resolve("ab/cd/orphan.pdf")));
+        assertFalse(Files.exists(root.resolve("gone.pdf")));
+        assertFalse(Files.exists(root.resolve(".quarantine/" + today)));
+    }
+
+    @Test
+    void quarantinedCopyIsDroppedWhenTheOriginalWasUploadedAgain() throws IOException {
+        write("same.pdf");
+        OrphanFileSweeper sweeper = sweeper(100, -1);
+        sweeper.sweepStep();
+        Files.writeString(root.resolve("same.pdf"), "nouvel envoi");
+        referenced.add("same.pdf");
+
+        sweeper.purgeQuarantine();
+
+        assertEquals("nouvel envoi", Files.readString(root.resolve("same.pdf")));
+        assertFalse(Files.exists(root.resolve(".quarantine/" + LocalDate.now())));
+    }
+
+    private OrphanFileSweeper sweeper(int maxFilesPerRun, int quarantineDays) {
+        StorageResolver storageResolver = new StorageResolver(root.toString(), new ShardedStorageLayout());
+        return new OrphanFileSweeper(storageResolver, lookup, new SimpleMeterRegistry(),
+                maxFilesPerRun, 0, quarantineDays, 2);
+    }
+
+    // Fichiers datés d'hier : plus anciens que min-age
+    private void write(String relative) throws IOException {
+        Path file = root.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, relative);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 86_400_000));
+    }
+}